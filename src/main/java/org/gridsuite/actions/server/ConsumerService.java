@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server;
+
+import org.gridsuite.actions.server.service.ContingencyListEvaluationCache;
+import org.gridsuite.actions.server.service.NetworkCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Consume the broker messages invalidating the data cached or materialized by the server.
+ */
+@Configuration
+public class ConsumerService {
+    private static final String CATEGORY_BROKER_INPUT = ContingencyListService.class.getName() + ".input-broker-messages";
+    private static final Logger MESSAGE_INPUT_LOGGER = LoggerFactory.getLogger(CATEGORY_BROKER_INPUT);
+
+    public static final String HEADER_NETWORK_UUID = "networkUuid";
+
+    private final NetworkCache networkCache;
+
+    private final ContingencyListEvaluationCache evaluationCache;
+
+    private final DefaultFilterProvider filterProvider;
+
+    private final ContingencyListSnapshotService snapshotService;
+
+    public ConsumerService(NetworkCache networkCache, ContingencyListEvaluationCache evaluationCache, DefaultFilterProvider filterProvider,
+                           ContingencyListSnapshotService snapshotService) {
+        this.networkCache = networkCache;
+        this.evaluationCache = evaluationCache;
+        this.filterProvider = filterProvider;
+        this.snapshotService = snapshotService;
+    }
+
+    @Bean
+    public Consumer<Message<String>> consumeNetworkUpdate() {
+        return message -> {
+            MESSAGE_INPUT_LOGGER.debug("Consuming message : {}", message);
+            UUID networkUuid = getUuidHeader(message, HEADER_NETWORK_UUID);
+            if (networkUuid != null) {
+                networkCache.invalidate(networkUuid);
+                evaluationCache.invalidateNetwork(networkUuid);
+                // refreshed once the caches are invalidated, so that the new evaluations use the updated network
+                snapshotService.invalidateNetwork(networkUuid);
+            }
+        };
+    }
+
+    /**
+     * Element updates come from any server: contingency lists of other instances of this server, as well as filters.
+     */
+    @Bean
+    public Consumer<Message<String>> consumeElementUpdate() {
+        return message -> {
+            MESSAGE_INPUT_LOGGER.debug("Consuming message : {}", message);
+            UUID elementUuid = getUuidHeader(message, NotificationService.HEADER_ELEMENT_UUID);
+            if (elementUuid != null) {
+                filterProvider.invalidate(elementUuid);
+                evaluationCache.invalidateElement(elementUuid);
+                snapshotService.invalidateElement(elementUuid);
+            }
+        };
+    }
+
+    private static UUID getUuidHeader(Message<String> message, String header) {
+        Object value = message.getHeaders().get(header);
+        return value != null ? UUID.fromString(value.toString()) : null;
+    }
+}
@@ -6,6 +6,8 @@
  */
 package org.gridsuite.actions.server;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -20,16 +22,28 @@ import org.gridsuite.actions.dto.evaluation.ContingencyIdsByGroup;
 import org.gridsuite.actions.dto.evaluation.ContingencyInfos;
 import org.gridsuite.actions.dto.evaluation.ContingencyListExportResult;
 import org.gridsuite.actions.server.dto.ContingencyCount;
+import org.gridsuite.actions.server.dto.ContingencyListMetadataPage;
+import org.gridsuite.actions.server.dto.EvaluationJobInfos;
+import org.gridsuite.actions.server.dto.IdentifierContingencyListPatch;
+import org.gridsuite.actions.server.service.IdentifierContingencyReader;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.persistence.EntityNotFoundException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -41,10 +55,22 @@ import java.util.UUID;
 @ComponentScan(basePackageClasses = ContingencyListService.class)
 public class ContingencyListController {
 
+    private static final String GZIP_ENCODING = "gzip";
+
     private final ContingencyListService service;
 
-    public ContingencyListController(ContingencyListService service) {
+    private final EvaluationJobService evaluationJobService;
+
+    private final ContingencyListSnapshotService snapshotService;
+
+    private final ObjectMapper objectMapper;
+
+    public ContingencyListController(ContingencyListService service, EvaluationJobService evaluationJobService,
+                                     ContingencyListSnapshotService snapshotService, ObjectMapper objectMapper) {
         this.service = service;
+        this.evaluationJobService = evaluationJobService;
+        this.snapshotService = snapshotService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping(value = "/contingency-lists", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -54,6 +80,15 @@ public class ContingencyListController {
         return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(service.getContingencyListsMetadata());
     }
 
+    @GetMapping(value = "/contingency-lists/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get a page of all contingency lists metadata, ordered by modification date")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "A page of contingency lists metadata"),
+        @ApiResponse(responseCode = "400", description = "Invalid page size or continuation token")})
+    public ResponseEntity<ContingencyListMetadataPage> getContingencyListsMetadataPage(@Parameter(description = "Page size, bounded by the server") @RequestParam(name = "size", defaultValue = "100") int size,
+                                                                                       @Parameter(description = "Continuation token of the previous page") @RequestParam(name = "continuationToken", required = false) String continuationToken) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(service.getContingencyListsMetadataPage(size, continuationToken));
+    }
+
     @PostMapping(value = "/contingency-lists/count-by-group", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Evaluate all contingency lists in each group and return the count by group")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The total contingency count by group")})
@@ -82,6 +117,32 @@ public class ContingencyListController {
         return ResponseEntity.ok().body(service.exportContingencyList(contingencyListIds, networkUuid, variantId));
     }
 
+    @GetMapping(value = "/contingency-lists/export/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Evaluate and export contingency lists to PowSyBl JSON format, streaming one contingency per line")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The contingencies in PowSyBl JSON format, one per line"),
+                           @ApiResponse(responseCode = "404", description = "A contingency list does not exists")})
+    public ResponseEntity<StreamingResponseBody> exportContingencyListStream(@RequestParam(value = "networkUuid", required = false) UUID networkUuid,
+                                                                             @RequestParam(value = "variantId", required = false) String variantId,
+                                                                             @RequestParam(value = "contingencyListIds") List<UUID> contingencyListIds) {
+        // fail before the response is committed
+        service.checkContingencyListsExist(contingencyListIds);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                service.exportContingencyList(contingencyListIds, networkUuid, variantId, contingency -> {
+                    try {
+                        generator.writeObject(contingency);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping(value = "/contingency-lists/contingency-infos/export", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Evaluate and export a contingency infos list to JSON format")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The contingency list in JSON format"),
@@ -92,6 +153,63 @@ public class ContingencyListController {
         return ResponseEntity.ok().body(service.exportContingencyInfosList(ids, networkUuid, variantId));
     }
 
+    @PutMapping(value = "/contingency-lists/{id}/snapshots")
+    @Operation(summary = "Materialize a contingency list on a network variant: its exports on this variant serve its contingencies evaluated in the background")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The contingency list is materialized on the network variant"),
+                           @ApiResponse(responseCode = "404", description = "The contingency list does not exists")})
+    public ResponseEntity<Void> attachSnapshot(@PathVariable("id") UUID id,
+                                               @RequestParam(value = "networkUuid") UUID networkUuid,
+                                               @RequestParam(value = "variantId", required = false) String variantId) {
+        snapshotService.attach(id, networkUuid, variantId);
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping(value = "/contingency-lists/{id}/snapshots")
+    @Operation(summary = "Stop materializing a contingency list on a network variant")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The contingency list is no longer materialized on the network variant"),
+                           @ApiResponse(responseCode = "404", description = "The contingency list is not materialized on the network variant")})
+    public ResponseEntity<Void> detachSnapshot(@PathVariable("id") UUID id,
+                                               @RequestParam(value = "networkUuid") UUID networkUuid,
+                                               @RequestParam(value = "variantId", required = false) String variantId) {
+        return snapshotService.detach(id, networkUuid, variantId) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping(value = "/contingency-lists/evaluation-jobs", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Submit an asynchronous evaluation of contingency lists, whose end is notified to the receiver on the broker")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The id of the evaluation job"),
+                           @ApiResponse(responseCode = "404", description = "A contingency list does not exists")})
+    public ResponseEntity<UUID> submitEvaluationJob(@RequestParam(value = "networkUuid", required = false) UUID networkUuid,
+                                                    @RequestParam(value = "variantId", required = false) String variantId,
+                                                    @RequestParam(value = "ids") List<UUID> ids,
+                                                    @RequestParam(value = "receiver", required = false) String receiver) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(evaluationJobService.submit(ids, networkUuid, variantId, receiver));
+    }
+
+    @GetMapping(value = "/contingency-lists/evaluation-jobs/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get the status of an evaluation job")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The evaluation job"),
+                           @ApiResponse(responseCode = "404", description = "The evaluation job does not exists or has expired")})
+    public ResponseEntity<EvaluationJobInfos> getEvaluationJob(@PathVariable("jobId") UUID jobId) {
+        return evaluationJobService.getJob(jobId).map(job -> ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(job))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/contingency-lists/evaluation-jobs/{jobId}/result", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get a page of the contingency infos evaluated by a succeeded evaluation job, gzipped if accepted by the client")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The page of contingency infos in JSON format"),
+                           @ApiResponse(responseCode = "404", description = "The evaluation job or the page does not exists"),
+                           @ApiResponse(responseCode = "409", description = "The evaluation job has not succeeded")})
+    public ResponseEntity<byte[]> getEvaluationJobResult(@PathVariable("jobId") UUID jobId,
+                                                         @Parameter(description = "Page number, from 0") @RequestParam(name = "page", defaultValue = "0") int page,
+                                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        byte[] content = evaluationJobService.getCompressedResultPage(jobId, page);
+        // the pages are stored gzipped: send them as is to the clients accepting it
+        if (acceptEncoding != null && acceptEncoding.contains(GZIP_ENCODING)) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).header(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING).body(content);
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(EvaluationJobService.decompress(content));
+    }
+
     @PostMapping(value = "/identifier-contingency-lists", consumes = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Create an identifier contingency list")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The identifier contingency list have been created successfully")})
@@ -102,12 +220,36 @@ public class ContingencyListController {
                 .body(service.createIdBasedContingencyList(id, idBasedContingencyList));
     }
 
+    @PostMapping(value = "/identifier-contingency-lists/import", consumes = {IdentifierContingencyReader.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE}, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create an identifier contingency list from a streamed upload of its contingencies, one per line: " +
+        "in CSV the contingency name followed by its equipment ids, in NDJSON objects with a name and equipmentIds. The upload may be gzip encoded")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The identifier contingency list has been created"),
+                           @ApiResponse(responseCode = "400", description = "The upload is empty or holds an invalid contingency")})
+    public ResponseEntity<ContingencyListMetadata> importIdentifierContingencyList(@RequestParam(required = false, value = "id") UUID id,
+                                                                                  @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                                                  @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+                                                                                  InputStream body) throws IOException {
+        InputStream inputStream = body;
+        if (GZIP_ENCODING.equalsIgnoreCase(contentEncoding)) {
+            try {
+                inputStream = new GZIPInputStream(body);
+            } catch (ZipException | EOFException e) {
+                // invalid or missing gzip header, the payload being checked as it is read
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        IdentifierContingencyReader reader = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+            ? IdentifierContingencyReader.ndjson(inputStream, objectMapper)
+            : IdentifierContingencyReader.csv(inputStream);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(service.importIdBasedContingencyList(id, reader));
+    }
+
     @GetMapping(value = "/identifier-contingency-lists/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Get identifier contingency list by id")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The identifier contingency list"),
         @ApiResponse(responseCode = "404", description = "The identifier contingency list does not exists")})
     public ResponseEntity<PersistentContingencyList> getIdentifierContingencyList(@PathVariable("id") UUID id) {
-        return service.getIdBasedContingencyList(id, null).map(contingencyList -> ResponseEntity.ok()
+        return service.getIdBasedContingencyList(id).map(contingencyList -> ResponseEntity.ok()
                         .contentType(MediaType.APPLICATION_JSON)
                         .body(contingencyList))
                 .orElse(ResponseEntity.notFound().build());
@@ -139,6 +281,21 @@ public class ContingencyListController {
         }
     }
 
+    @PatchMapping(value = "/identifier-contingency-lists/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Add, modify or remove some contingencies of a identifier contingency list")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The identifier contingency list have been modified successfully")})
+    public ResponseEntity<Void> patchIdentifierContingencyList(
+            @PathVariable("id") UUID id,
+            @RequestBody IdentifierContingencyListPatch patch,
+            @RequestHeader("userId") String userId) {
+        try {
+            service.patchIdBasedContingencyList(id, patch, userId);
+            return ResponseEntity.ok().build();
+        } catch (EntityNotFoundException ignored) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @PostMapping(value = "/filters-contingency-lists", consumes = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Create an filter base contingency list")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The filter based contingency list has been created successfully")})
@@ -187,6 +344,21 @@ public class ContingencyListController {
             .orElse(ResponseEntity.notFound().build());
     }
 
+    @PostMapping(value = "/contingency-lists/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create contingency lists of any type in a single transaction")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The ids of the created contingency lists, in the order of the lists")})
+    public ResponseEntity<List<UUID>> createContingencyLists(@RequestBody List<AbstractContingencyList> contingencyLists) {
+        return ResponseEntity.ok().body(service.createContingencyLists(contingencyLists));
+    }
+
+    @PostMapping(value = "/contingency-lists/batch/duplicate", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create contingency lists of any type from existing ones, in a single transaction")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The ids of the created contingency lists, in the order of the source lists"),
+                           @ApiResponse(responseCode = "404", description = "A source contingency list does not exist")})
+    public ResponseEntity<List<UUID>> duplicateContingencyLists(@RequestBody List<UUID> sourceListIds) {
+        return ResponseEntity.ok().body(service.duplicateContingencyLists(sourceListIds));
+    }
+
     @DeleteMapping(value = "/contingency-lists/{id}")
     @Operation(summary = "delete the contingency list")
     @ApiResponse(responseCode = "200", description = "The contingency list has been deleted")
@@ -199,6 +371,14 @@ public class ContingencyListController {
         }
     }
 
+    @DeleteMapping(value = "/contingency-lists")
+    @Operation(summary = "delete contingency lists")
+    @ApiResponse(responseCode = "200", description = "The contingency lists have been deleted, the unknown ones are ignored")
+    public ResponseEntity<Void> deleteContingencyLists(@Parameter(description = "Contingency list ids") @RequestParam(name = "ids") List<UUID> ids) {
+        service.deleteContingencyLists(ids);
+        return ResponseEntity.ok().build();
+    }
+
     @GetMapping(value = "/contingency-lists/metadata", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Get contingency lists metadata")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "contingency lists metadata"),
@@ -6,7 +6,6 @@
  */
 package org.gridsuite.actions.server;
 
-import com.powsybl.commons.PowsyblException;
 import com.powsybl.contingency.Contingency;
 import com.powsybl.contingency.list.IdentifierContingencyList;
 import com.powsybl.iidm.network.Network;
@@ -26,22 +25,48 @@ import org.gridsuite.actions.dto.evaluation.ContingencyIdsByGroup;
 import org.gridsuite.actions.dto.evaluation.ContingencyInfos;
 import org.gridsuite.actions.dto.evaluation.ContingencyListExportResult;
 import org.gridsuite.actions.server.dto.ContingencyCount;
+import org.gridsuite.actions.server.dto.ContingencyListMetadataPage;
+import org.gridsuite.actions.server.dto.IdentifierContingency;
+import org.gridsuite.actions.server.dto.IdentifierContingencyListPatch;
 import org.gridsuite.actions.server.entities.*;
+import org.gridsuite.actions.server.repositories.ContingencyListBulkRepository;
+import org.gridsuite.actions.server.repositories.ContingencyListRegistryRepository;
+import org.gridsuite.actions.server.repositories.ContingencyListSnapshotRepository;
 import org.gridsuite.actions.server.repositories.FilterBasedContingencyListRepository;
 import org.gridsuite.actions.server.repositories.IdBasedContingencyListRepository;
+import org.gridsuite.actions.server.repositories.IdentifierListBulkRepository;
+import org.gridsuite.actions.server.service.ContingencyListEvaluationCache;
 import org.gridsuite.actions.server.service.FilterService;
+import org.gridsuite.actions.server.service.NetworkCache;
 import org.gridsuite.actions.utils.ContingencyListType;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -51,62 +76,215 @@ import java.util.stream.Stream;
 @Service
 public class ContingencyListService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContingencyListService.class);
+
+    private static final String CONTINUATION_TOKEN_SEPARATOR = "/";
+
     private final IdBasedContingencyListRepository idBasedContingencyListRepository;
 
     private final FilterBasedContingencyListRepository filterBasedContingencyListRepository;
 
-    private final NetworkStoreService networkStoreService;
+    private final ContingencyListRegistryRepository contingencyListRegistryRepository;
+
+    private final IdentifierListBulkRepository identifierListBulkRepository;
+
+    private final ContingencyListBulkRepository contingencyListBulkRepository;
+
+    private final ContingencyListSnapshotRepository contingencyListSnapshotRepository;
+
+    private final NetworkCache networkCache;
 
     private final NotificationService notificationService;
 
     private final FilterService filterService;
 
+    private final DefaultFilterProvider filterProvider;
+
     private final ContingencyListEvaluator contingencyListEvaluator;
 
+    private final ContingencyListEvaluationCache evaluationCache;
+
+    private final ExecutorService evaluationExecutor;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final int evaluationParallelism;
+
+    private final int maxEquipmentIdsWithoutPreloading;
+
+    private final int maxMetadataPageSize;
+
+    /**
+     * Contingency lists of both types, loaded with their collections in a fixed number of batched queries.
+     */
+    private record ContingencyListEntities(Map<UUID, IdBasedContingencyListEntity> idBasedLists,
+                                           Map<UUID, FilterBasedContingencyListEntity> filterBasedLists) {
+        boolean isEmpty() {
+            return idBasedLists.isEmpty() && filterBasedLists.isEmpty();
+        }
+
+        /**
+         * Build the list to evaluate, the equipments of the id based lists being checked against the given not found ids.
+         */
+        Optional<PersistentContingencyList> getContingencyList(UUID id, Set<String> notFoundEquipmentIds) {
+            IdBasedContingencyListEntity idBasedList = idBasedLists.get(id);
+            if (idBasedList != null) {
+                return Optional.of(toEvaluatedIdBasedContingencyList(idBasedList, notFoundEquipmentIds));
+            }
+            return Optional.ofNullable(filterBasedLists.get(id)).map(ContingencyListService::fromFilterBasedContingencyListEntity);
+        }
+
+        Set<UUID> getIds() {
+            Set<UUID> ids = new HashSet<>(idBasedLists.keySet());
+            ids.addAll(filterBasedLists.keySet());
+            return ids;
+        }
+
+        ContingencyListEntities subset(Collection<UUID> ids) {
+            Map<UUID, IdBasedContingencyListEntity> idBasedSubset = new HashMap<>();
+            Map<UUID, FilterBasedContingencyListEntity> filterBasedSubset = new HashMap<>();
+            ids.forEach(id -> {
+                if (idBasedLists.containsKey(id)) {
+                    idBasedSubset.put(id, idBasedLists.get(id));
+                } else if (filterBasedLists.containsKey(id)) {
+                    filterBasedSubset.put(id, filterBasedLists.get(id));
+                }
+            });
+            return new ContingencyListEntities(idBasedSubset, filterBasedSubset);
+        }
+
+        ContingencyListEvaluationCache.Key getEvaluationKey(UUID id, UUID networkUuid, String variantId) {
+            AbstractContingencyEntity entity = idBasedLists.containsKey(id) ? idBasedLists.get(id) : filterBasedLists.get(id);
+            return new ContingencyListEvaluationCache.Key(id, entity.getModificationDate(), networkUuid, variantId);
+        }
+
+        List<UUID> getFilterIds(UUID id) {
+            FilterBasedContingencyListEntity filterBasedList = filterBasedLists.get(id);
+            return filterBasedList != null ? filterBasedList.getFiltersIds() : List.of();
+        }
+
+        /**
+         * Load the lazy collections of the lists, so that they can be read outside of the session thread.
+         */
+        ContingencyListEntities initialize() {
+            idBasedLists.values().forEach(entity -> entity.getIdentifiersListEntities()
+                    .forEach(identifierList -> Hibernate.initialize(identifierList.getEquipmentIds())));
+            filterBasedLists.values().forEach(entity -> Hibernate.initialize(entity.getFiltersIds()));
+            return this;
+        }
+    }
+
     public ContingencyListService(IdBasedContingencyListRepository idBasedContingencyListRepository,
                                   FilterBasedContingencyListRepository filterBasedContingencyListRepository,
-                                  NetworkStoreService networkStoreService,
+                                  ContingencyListRegistryRepository contingencyListRegistryRepository,
+                                  IdentifierListBulkRepository identifierListBulkRepository,
+                                  ContingencyListBulkRepository contingencyListBulkRepository,
+                                  ContingencyListSnapshotRepository contingencyListSnapshotRepository,
+                                  NetworkCache networkCache,
                                   NotificationService notificationService,
                                   FilterService filterService,
-                                  ContingencyListEvaluator contingencyListEvaluator) {
+                                  DefaultFilterProvider filterProvider,
+                                  ContingencyListEvaluator contingencyListEvaluator,
+                                  ContingencyListEvaluationCache evaluationCache,
+                                  ExecutorService evaluationExecutor,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${gridsuite.evaluation.parallelism:2}") int evaluationParallelism,
+                                  @Value("${gridsuite.network-preloading.max-equipment-ids-without-preloading:100}") int maxEquipmentIdsWithoutPreloading,
+                                  @Value("${gridsuite.contingency-lists.max-page-size:1000}") int maxMetadataPageSize) {
         this.idBasedContingencyListRepository = idBasedContingencyListRepository;
         this.filterBasedContingencyListRepository = filterBasedContingencyListRepository;
-        this.networkStoreService = networkStoreService;
+        this.contingencyListRegistryRepository = contingencyListRegistryRepository;
+        this.identifierListBulkRepository = identifierListBulkRepository;
+        this.contingencyListBulkRepository = contingencyListBulkRepository;
+        this.contingencyListSnapshotRepository = contingencyListSnapshotRepository;
+        this.networkCache = networkCache;
         this.notificationService = notificationService;
         this.filterService = filterService;
+        this.filterProvider = filterProvider;
         this.contingencyListEvaluator = contingencyListEvaluator;
-    }
-
-    ContingencyListMetadata fromContingencyListEntity(AbstractContingencyEntity entity, ContingencyListType type) {
-        return new ContingencyListMetadataImpl(entity.getId(), type, entity.getModificationDate());
+        this.evaluationCache = evaluationCache;
+        this.evaluationExecutor = evaluationExecutor;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.evaluationParallelism = evaluationParallelism;
+        this.maxEquipmentIdsWithoutPreloading = maxEquipmentIdsWithoutPreloading;
+        this.maxMetadataPageSize = maxMetadataPageSize;
     }
 
     List<ContingencyListMetadata> getContingencyListsMetadata() {
-        return Stream.of(
-            idBasedContingencyListRepository.findAll().stream().map(idBasedContingencyListEntity ->
-                    fromContingencyListEntity(idBasedContingencyListEntity, ContingencyListType.IDENTIFIERS)),
-            filterBasedContingencyListRepository.findAll().stream().map(filterBasedContingencyListEntity ->
-                    fromContingencyListEntity(filterBasedContingencyListEntity, ContingencyListType.FILTERS))
-        ).flatMap(Function.identity()).collect(Collectors.toList());
+        return contingencyListRegistryRepository.findAllMetadata();
     }
 
     List<ContingencyListMetadata> getContingencyListsMetadata(List<UUID> ids) {
-        return Stream.of(
-            idBasedContingencyListRepository.findAllById(ids).stream().map(idBasedContingencyListEntity ->
-                    fromContingencyListEntity(idBasedContingencyListEntity, ContingencyListType.IDENTIFIERS)),
-            filterBasedContingencyListRepository.findAllById(ids).stream().map(filterBasedContingencyListEntity ->
-                fromContingencyListEntity(filterBasedContingencyListEntity, ContingencyListType.FILTERS))
-        ).flatMap(Function.identity()).collect(Collectors.toList());
+        return ids.isEmpty() ? List.of() : contingencyListRegistryRepository.findAllMetadataByIdIn(ids);
+    }
+
+    /**
+     * Get a page of the contingency lists metadata, ordered by modification date and id. The page starts after
+     * the list the continuation token points to, so pages stay consistent when lists are created meanwhile.
+     */
+    ContingencyListMetadataPage getContingencyListsMetadataPage(int size, String continuationToken) {
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page size must be positive");
+        }
+        int pageSize = Math.min(size, maxMetadataPageSize);
+        // one more list to know if there is a next page
+        Limit limit = Limit.of(pageSize + 1);
+        List<ContingencyListMetadata> metadata;
+        if (continuationToken == null) {
+            metadata = contingencyListRegistryRepository.findFirstMetadata(limit);
+        } else {
+            ContingencyListMetadata lastMetadata = decodeContinuationToken(continuationToken);
+            metadata = contingencyListRegistryRepository.findMetadataAfter(lastMetadata.getModificationDate(), lastMetadata.getId(), limit);
+        }
+        if (metadata.size() <= pageSize) {
+            return new ContingencyListMetadataPage(metadata, null);
+        }
+        List<ContingencyListMetadata> page = List.copyOf(metadata.subList(0, pageSize));
+        return new ContingencyListMetadataPage(page, encodeContinuationToken(page.getLast()));
+    }
+
+    private static String encodeContinuationToken(ContingencyListMetadata lastMetadata) {
+        String token = lastMetadata.getModificationDate() + CONTINUATION_TOKEN_SEPARATOR + lastMetadata.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ContingencyListMetadata decodeContinuationToken(String continuationToken) {
+        try {
+            String[] token = new String(Base64.getUrlDecoder().decode(continuationToken), StandardCharsets.UTF_8).split(CONTINUATION_TOKEN_SEPARATOR);
+            if (token.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            return new ContingencyListMetadataImpl(UUID.fromString(token[1]), null, Instant.parse(token[0]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid continuation token " + continuationToken);
+        }
+    }
+
+    /**
+     * Resolve the type of the given lists with a single query on the registry, unknown ids are left out.
+     */
+    private Map<ContingencyListType, Set<UUID>> getContingencyListIdsByType(Collection<UUID> ids) {
+        Map<ContingencyListType, Set<UUID>> idsByType = new EnumMap<>(ContingencyListType.class);
+        if (!ids.isEmpty()) {
+            contingencyListRegistryRepository.findAllById(new HashSet<>(ids)).forEach(entity ->
+                idsByType.computeIfAbsent(entity.getType(), type -> new HashSet<>()).add(entity.getId()));
+        }
+        return idsByType;
+    }
+
+    private void register(AbstractContingencyEntity entity, ContingencyListType type) {
+        contingencyListRegistryRepository.save(new ContingencyListRegistryEntity(entity.getId(), type, entity.getModificationDate()));
     }
 
     @Transactional(readOnly = true)
-    public Optional<PersistentContingencyList> getIdBasedContingencyList(UUID id, Network network) {
-        return doGetIdBasedContingencyList(id, network);
+    public Optional<PersistentContingencyList> getIdBasedContingencyList(UUID id) {
+        return doGetIdBasedContingencyList(id);
     }
 
-    private Optional<PersistentContingencyList> doGetIdBasedContingencyList(UUID id, Network network) {
+    private Optional<PersistentContingencyList> doGetIdBasedContingencyList(UUID id) {
         Objects.requireNonNull(id);
-        return idBasedContingencyListRepository.findById(id).map(idBasedContingencyListEntity -> fromIdBasedContingencyListEntity(idBasedContingencyListEntity, network));
+        return idBasedContingencyListRepository.findWithIdentifiersById(id).map(ContingencyListService::fromIdBasedContingencyListEntity);
     }
 
     @Transactional
@@ -136,53 +314,292 @@ public class ContingencyListService {
         return filterBasedContingencyListRepository.findById(id);
     }
 
-    private ContingencyCount getContingencyCount(Network network, List<UUID> ids) {
+    private ContingencyCount getContingencyCount(List<UUID> ids, Map<UUID, ContingencyCount> countById) {
+        ContingencyCount count = ContingencyCount.ZERO;
+        for (UUID uuid : ids) {
+            count = count.add(countById.getOrDefault(uuid, ContingencyCount.ZERO));
+        }
+        return count;
+    }
+
+    private ContingencyListEntities findContingencyListEntities(Collection<UUID> ids) {
+        Map<ContingencyListType, Set<UUID>> idsByType = getContingencyListIdsByType(ids);
+        Map<UUID, IdBasedContingencyListEntity> idBasedLists = new HashMap<>();
+        Map<UUID, FilterBasedContingencyListEntity> filterBasedLists = new HashMap<>();
+        if (idsByType.containsKey(ContingencyListType.IDENTIFIERS)) {
+            idBasedContingencyListRepository.findAllWithIdentifiersByIdIn(idsByType.get(ContingencyListType.IDENTIFIERS)).forEach(entity -> idBasedLists.put(entity.getId(), entity));
+        }
+        if (idsByType.containsKey(ContingencyListType.FILTERS)) {
+            filterBasedContingencyListRepository.findAllById(idsByType.get(ContingencyListType.FILTERS)).forEach(entity -> filterBasedLists.put(entity.getId(), entity));
+        }
+        return new ContingencyListEntities(idBasedLists, filterBasedLists);
+    }
+
+    /**
+     * The network store loads a whole equipment collection on the first access to one of its equipments, unless the
+     * network is loaded without preloading, in which case the equipments are loaded one by one.
+     * Filters select the equipments by type, so only the collections of the selected types are loaded. Equipment ids
+     * are not typed and their lookup may go through every collection: when the lists only hold a few of them, loading
+     * these equipments one by one is much lighter.
+     */
+    private PreloadingStrategy getPreloadingStrategy(ContingencyListEntities lists) {
+        if (!lists.filterBasedLists().isEmpty()) {
+            return PreloadingStrategy.COLLECTION;
+        }
+        long nbEquipmentIds = lists.idBasedLists().values().stream()
+                .flatMap(entity -> entity.getIdentifiersListEntities().stream())
+                .flatMap(identifierList -> identifierList.getEquipmentIds().stream())
+                .distinct()
+                .limit(maxEquipmentIdsWithoutPreloading + 1L)
+                .count();
+        return nbEquipmentIds <= maxEquipmentIdsWithoutPreloading ? PreloadingStrategy.NONE : PreloadingStrategy.COLLECTION;
+    }
+
+    /**
+     * Check the existence of the equipments of the id based lists on a leased network, see
+     * {@link #findNotFoundEquipmentIds(ContingencyListEntities, Network)}.
+     */
+    private Set<String> findNotFoundEquipmentIds(ContingencyListEntities lists, UUID networkUuid, String variantId) {
+        if (lists.idBasedLists().isEmpty()) {
+            return Set.of();
+        }
+        return withNetwork(networkUuid, variantId, getPreloadingStrategy(lists), network -> findNotFoundEquipmentIds(lists, network));
+    }
+
+    /**
+     * Check the existence of the equipments of the id based lists in a single pass over their distinct ids: the same
+     * equipments are often shared by many contingencies and lists, and the network store does not remember the missing
+     * ones. The building, the counting and the not found reporting of the contingencies then share the result.
+     */
+    private static Set<String> findNotFoundEquipmentIds(ContingencyListEntities lists, Network network) {
+        Set<String> equipmentIds = lists.idBasedLists().values().stream()
+                .flatMap(entity -> entity.getIdentifiersListEntities().stream())
+                .flatMap(identifierList -> identifierList.getEquipmentIds().stream())
+                .collect(Collectors.toSet());
+        return equipmentIds.stream()
+                .filter(equipmentId -> network.getIdentifiable(equipmentId) == null)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Count each distinct contingency list only once. Unknown ids are absent from the result.
+     */
+    private Map<UUID, ContingencyCount> countContingencies(Collection<UUID> ids, UUID networkUuid, String variantId) {
+        ContingencyListEntities lists = findContingencyListEntities(ids);
+        if (lists.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, ContingencyCount> counts = new HashMap<>();
+        Set<String> notFoundEquipmentIds = findNotFoundEquipmentIds(lists, networkUuid, variantId);
+        lists.idBasedLists().forEach((id, entity) -> counts.put(id, countIdBasedContingencies(entity, notFoundEquipmentIds)));
+        if (lists.filterBasedLists().isEmpty()) {
+            return counts;
+        }
+        ContingencyListEntities filterBasedLists = lists.subset(lists.filterBasedLists().keySet());
+        Map<UUID, List<ContingencyInfos>> evaluations = getCachedEvaluations(filterBasedLists, filterBasedLists.getIds(), networkUuid, variantId);
+        prefetchFilters(filterBasedLists.subset(filterBasedLists.getIds().stream().filter(id -> !evaluations.containsKey(id)).toList()));
+        counts.putAll(forEachContingencyList(filterBasedLists.initialize(), filterBasedLists.getIds(), networkUuid, variantId, (id, network) -> {
+            List<ContingencyInfos> evaluation = evaluations.containsKey(id) ? evaluations.get(id) : evaluateContingencyList(filterBasedLists, id, network, Set.of(), networkUuid, variantId);
+            return countEvaluatedContingencies(filterBasedLists, id, evaluation, network);
+        }));
+        return counts;
+    }
+
+    /**
+     * Count the contingencies of an id based list straight from its identifiers, without building any contingency:
+     * a contingency is valid as soon as one of its equipments exists in the network, and it has not found elements
+     * as soon as one of its equipments is missing.
+     */
+    private static ContingencyCount countIdBasedContingencies(IdBasedContingencyListEntity entity, Set<String> notFoundEquipmentIds) {
         int nbContingencies = 0;
         int nbNotFoundElements = 0;
-        for (UUID uuid : ids) {
-            Optional<PersistentContingencyList> contingencyList = getAnyContingencyList(uuid, network);
-            if (contingencyList.isPresent()) {
-                PersistentContingencyList l = contingencyList.get();
-                nbContingencies += getContingencies(l, network).size();
-                nbNotFoundElements += l.getNotFoundElements(network).size();
+        for (IdentifierListEntity identifierList : entity.getIdentifiersListEntities()) {
+            boolean hasFoundElement = false;
+            boolean hasNotFoundElement = false;
+            for (String equipmentId : identifierList.getEquipmentIds()) {
+                if (!notFoundEquipmentIds.contains(equipmentId)) {
+                    hasFoundElement = true;
+                } else {
+                    hasNotFoundElement = true;
+                }
+                if (hasFoundElement && hasNotFoundElement) {
+                    break;
+                }
             }
+            nbContingencies += hasFoundElement ? 1 : 0;
+            nbNotFoundElements += hasNotFoundElement ? 1 : 0;
         }
         return new ContingencyCount(nbContingencies, nbNotFoundElements);
     }
 
+    private static ContingencyCount countEvaluatedContingencies(ContingencyListEntities lists, UUID id, List<ContingencyInfos> evaluation, Network network) {
+        int nbContingencies = 0;
+        for (ContingencyInfos contingencyInfos : evaluation) {
+            if (contingencyInfos.getContingency() != null) {
+                nbContingencies++;
+            }
+        }
+        return new ContingencyCount(nbContingencies, fromFilterBasedContingencyListEntity(lists.filterBasedLists().get(id)).getNotFoundElements(network).size());
+    }
+
+    /**
+     * Evaluate the lists, reusing the evaluations cached for the same version of a list on the same network variant:
+     * the network is only loaded when some of the lists have not been evaluated yet. Unknown ids are absent from the result.
+     */
+    private Map<UUID, List<ContingencyInfos>> evaluateContingencyLists(ContingencyListEntities lists, UUID networkUuid, String variantId) {
+        Map<UUID, List<ContingencyInfos>> evaluations = getCachedEvaluations(lists, lists.getIds(), networkUuid, variantId);
+        Set<UUID> notEvaluatedIds = new HashSet<>(lists.getIds());
+        notEvaluatedIds.removeAll(evaluations.keySet());
+        if (!notEvaluatedIds.isEmpty()) {
+            ContingencyListEntities listsToEvaluate = lists.subset(notEvaluatedIds).initialize();
+            prefetchFilters(listsToEvaluate);
+            Set<String> notFoundEquipmentIds = findNotFoundEquipmentIds(listsToEvaluate, networkUuid, variantId);
+            evaluations.putAll(forEachContingencyList(listsToEvaluate, notEvaluatedIds, networkUuid, variantId,
+                    (id, network) -> evaluateContingencyList(listsToEvaluate, id, network, notFoundEquipmentIds, networkUuid, variantId)));
+        }
+        return evaluations;
+    }
+
+    /**
+     * Apply the task to each list, the lists being spread over up to {@code gridsuite.evaluation.parallelism} workers,
+     * and no more than the network cache can hold. Network store networks cannot be shared between threads: each worker
+     * leases its own instance of the network. The caller is the first worker, the other ones run on the evaluation
+     * executor and are skipped if they have not started by the time the caller is done, so that a request never waits
+     * for the executor. The lists must be initialized, as the workers run outside of the current session.
+     */
+    private <T> Map<UUID, T> forEachContingencyList(ContingencyListEntities lists, Collection<UUID> ids, UUID networkUuid, String variantId,
+                                                    BiFunction<UUID, Network, T> task) {
+        Queue<UUID> pendingIds = new ConcurrentLinkedQueue<>(ids);
+        Map<UUID, T> results = new ConcurrentHashMap<>();
+        PreloadingStrategy preloadingStrategy = getPreloadingStrategy(lists);
+        Runnable worker = () -> {
+            if (pendingIds.isEmpty()) {
+                return;
+            }
+            withNetwork(networkUuid, variantId, preloadingStrategy, network -> {
+                for (UUID id = pendingIds.poll(); id != null; id = pendingIds.poll()) {
+                    results.put(id, task.apply(id, network));
+                }
+                return null;
+            });
+        };
+        int nbWorkers = networkUuid != null ? Math.min(Math.min(evaluationParallelism, ids.size()), Math.max(networkCache.getMaxSize(), 1)) : 1;
+        // claimed by the worker when it starts, or by the caller to skip it
+        List<AtomicBoolean> claims = new ArrayList<>();
+        List<CompletableFuture<Void>> otherWorkers = new ArrayList<>();
+        for (int i = 1; i < nbWorkers; i++) {
+            AtomicBoolean claim = new AtomicBoolean();
+            claims.add(claim);
+            otherWorkers.add(CompletableFuture.runAsync(() -> {
+                if (claim.compareAndSet(false, true)) {
+                    worker.run();
+                }
+            }, evaluationExecutor));
+        }
+        try {
+            worker.run();
+        } catch (RuntimeException e) {
+            // stop the other workers
+            pendingIds.clear();
+            throw e;
+        }
+        for (int i = 0; i < otherWorkers.size(); i++) {
+            if (!claims.get(i).compareAndSet(false, true)) {
+                join(otherWorkers.get(i));
+            }
+        }
+        return results;
+    }
+
+    private Map<UUID, List<ContingencyInfos>> getCachedEvaluations(ContingencyListEntities lists, Collection<UUID> ids, UUID networkUuid, String variantId) {
+        Map<UUID, List<ContingencyInfos>> evaluations = new HashMap<>();
+        // the evaluations on the empty network are not cached
+        if (networkUuid != null) {
+            ids.forEach(id -> evaluationCache.get(lists.getEvaluationKey(id, networkUuid, variantId))
+                    .ifPresent(evaluation -> evaluations.put(id, evaluation)));
+        }
+        return evaluations;
+    }
+
+    /**
+     * Fetch the filters of all the lists with a single call to the filter server: the evaluation of each list then
+     * finds its filters in the filter provider cache. On failure, each evaluation fetches its own filters.
+     */
+    private void prefetchFilters(ContingencyListEntities lists) {
+        List<UUID> filterIds = lists.filterBasedLists().values().stream()
+                .flatMap(entity -> entity.getFiltersIds().stream())
+                .distinct()
+                .toList();
+        if (!filterIds.isEmpty()) {
+            try {
+                filterProvider.getFilters(filterIds);
+            } catch (RestClientException e) {
+                LOGGER.warn("Could not prefetch the filters {}: {}", filterIds, e.getMessage());
+            }
+        }
+    }
+
+    private List<ContingencyInfos> evaluateContingencyList(ContingencyListEntities lists, UUID id, Network network, Set<String> notFoundEquipmentIds,
+                                                           UUID networkUuid, String variantId) {
+        PersistentContingencyList contingencyList = lists.getContingencyList(id, notFoundEquipmentIds).orElseThrow();
+        if (networkUuid == null) {
+            return contingencyListEvaluator.evaluateContingencyList(contingencyList, network);
+        }
+        return evaluationCache.evaluate(lists.getEvaluationKey(id, networkUuid, variantId), lists.getFilterIds(id),
+                () -> contingencyListEvaluator.evaluateContingencyList(contingencyList, network));
+    }
+
     @Transactional(readOnly = true)
     public Map<String, Integer> getContingencyCountByGroup(ContingencyIdsByGroup contingencyIdsByGroup, UUID networkUuid, String variantId) {
-        Network network = getNetworkFromUuid(networkUuid, variantId);
+        // the same lists are often shared by several groups: evaluate them once and fan the counts out to the groups
+        Map<UUID, ContingencyCount> countById = countContingencies(
+                contingencyIdsByGroup.getIds().values().stream().flatMap(List::stream).toList(), networkUuid, variantId);
         return contingencyIdsByGroup.getIds().entrySet().stream().collect(Collectors.toMap(
                 Map.Entry::getKey,
-                e -> getContingencyCount(network, e.getValue()).contingencies())
+                e -> getContingencyCount(e.getValue(), countById).contingencies())
         );
     }
 
+    private static void join(CompletableFuture<?> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
     @Transactional(readOnly = true)
     public ContingencyCount getContingencyCount(List<UUID> ids, UUID networkUuid, String variantId) {
-        Network network = getNetworkFromUuid(networkUuid, variantId);
-        return getContingencyCount(network, ids);
+        return getContingencyCount(ids, countContingencies(ids, networkUuid, variantId));
     }
 
     @Transactional(readOnly = true)
     public ContingencyListExportResult exportContingencyList(List<UUID> contingencyListIds, UUID networkUuid, String variantId) {
-        Network network = getNetworkFromUuid(networkUuid, variantId);
+        Set<UUID> snapshotIds = findSnapshotIds(contingencyListIds, networkUuid, variantId);
+        Map<UUID, List<ContingencyInfos>> evaluations = evaluateContingencyLists(
+                findContingencyListEntities(contingencyListIds.stream().filter(id -> !snapshotIds.contains(id)).toList()), networkUuid, variantId);
         List<Contingency> contingencies = new ArrayList<>();
         List<UUID> notFoundIds = new ArrayList<>();
 
         contingencyListIds.forEach(contingencyListId -> {
-            Optional<PersistentContingencyList> contingencyList = getAnyContingencyList(contingencyListId, network);
-            contingencyList.ifPresentOrElse(
-                    list -> contingencies.addAll(getContingencies(list, network)),
+            if (snapshotIds.contains(contingencyListId)) {
+                contingencyListSnapshotRepository.forEachContingency(new ContingencyListSnapshotRepository.Key(contingencyListId, networkUuid, variantId), contingencies::add);
+                return;
+            }
+            Optional<List<ContingencyInfos>> evaluation = Optional.ofNullable(evaluations.get(contingencyListId));
+            evaluation.ifPresentOrElse(
+                    contingencyInfos -> contingencies.addAll(getContingencies(contingencyInfos)),
                     () -> notFoundIds.add(contingencyListId)
             );
         });
         return new ContingencyListExportResult(contingencies, notFoundIds);
     }
 
-    private List<Contingency> getContingencies(PersistentContingencyList persistentContingencyList, Network network) {
-        return contingencyListEvaluator.evaluateContingencyList(persistentContingencyList, network)
+    private static List<Contingency> getContingencies(List<ContingencyInfos> contingencyInfos) {
+        return contingencyInfos
                 .stream()
                 .map(ContingencyInfos::getContingency)
                 .filter(Objects::nonNull)
@@ -191,97 +608,314 @@ public class ContingencyListService {
 
     @Transactional(readOnly = true)
     public List<ContingencyInfos> exportContingencyInfosList(List<UUID> ids, UUID networkUuid, String variantId) {
-        Network network = getNetworkFromUuid(networkUuid, variantId);
-        return ids.stream().map(id -> contingencyListEvaluator.evaluateContingencyList(findContingencyList(id, network), network)).flatMap(Collection::stream).toList();
+        ContingencyListEntities lists = findContingencyListEntities(ids);
+        checkContingencyListsExist(ids, lists.getIds());
+        Map<UUID, List<ContingencyInfos>> evaluations = evaluateContingencyLists(lists, networkUuid, variantId);
+        return ids.stream().map(evaluations::get).flatMap(Collection::stream).toList();
     }
 
-    private PersistentContingencyList findContingencyList(UUID id, Network network) {
-        Objects.requireNonNull(id);
-        return getAnyContingencyList(id, network)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contingency list " + id + " not found"));
+    /**
+     * Evaluate the lists one by one and hand their contingency infos over to the consumer, so that a single evaluated
+     * list is held in memory at once, whatever the size of the export. The lists are read within a short transaction
+     * and evaluated outside of it, so that no connection is held for the whole evaluation.
+     */
+    public void exportContingencyInfosList(List<UUID> ids, UUID networkUuid, String variantId, Consumer<ContingencyInfos> consumer) {
+        ContingencyListEntities lists = Objects.requireNonNull(readOnlyTransactionTemplate.execute(status -> {
+            ContingencyListEntities foundLists = findContingencyListEntities(ids);
+            checkContingencyListsExist(ids, foundLists.getIds());
+            return foundLists.initialize();
+        }));
+        forEachEvaluation(ids, lists, networkUuid, variantId, (id, evaluation) -> evaluation.forEach(consumer));
     }
 
-    private Optional<PersistentContingencyList> getAnyContingencyList(UUID id, Network network) {
-        return doGetIdBasedContingencyList(id, network)
-                .or(() -> doGetFilterBasedContingencyList(id));
+    /**
+     * Evaluate the lists one by one and hand their contingencies over to the consumer, so that a single evaluated list
+     * is held in memory at once, whatever the size of the export. The snapshots are read in turn as well, and
+     * unknown lists are skipped.
+     */
+    @Transactional(readOnly = true)
+    public void exportContingencyList(List<UUID> contingencyListIds, UUID networkUuid, String variantId, Consumer<Contingency> consumer) {
+        Set<UUID> snapshotIds = findSnapshotIds(contingencyListIds, networkUuid, variantId);
+        ContingencyListEntities lists = findContingencyListEntities(contingencyListIds.stream().filter(id -> !snapshotIds.contains(id)).toList());
+        forEachEvaluation(contingencyListIds, lists, networkUuid, variantId, (id, evaluation) -> {
+            if (snapshotIds.contains(id)) {
+                contingencyListSnapshotRepository.forEachContingency(new ContingencyListSnapshotRepository.Key(id, networkUuid, variantId), consumer);
+            } else if (evaluation != null) {
+                getContingencies(evaluation).forEach(consumer);
+            }
+        });
     }
 
-    private Network getNetworkFromUuid(UUID networkUuid, String variantId) {
-        Network network;
+    /**
+     * Hand the evaluations of the given lists over to the action one by one, in the order of the ids, on a single
+     * network. The other ids are handed over without evaluation, and the network is not loaded when there is no list.
+     */
+    private void forEachEvaluation(List<UUID> ids, ContingencyListEntities lists, UUID networkUuid, String variantId,
+                                   BiConsumer<UUID, List<ContingencyInfos>> action) {
+        if (lists.isEmpty()) {
+            ids.forEach(id -> action.accept(id, null));
+            return;
+        }
+        Map<UUID, List<ContingencyInfos>> cachedEvaluations = getCachedEvaluations(lists, lists.getIds(), networkUuid, variantId);
+        ContingencyListEntities listsToEvaluate = lists.subset(lists.getIds().stream().filter(id -> !cachedEvaluations.containsKey(id)).toList());
+        prefetchFilters(listsToEvaluate);
+        withNetwork(networkUuid, variantId, getPreloadingStrategy(lists), network -> {
+            Set<String> notFoundEquipmentIds = findNotFoundEquipmentIds(listsToEvaluate, network);
+            ids.forEach(id -> {
+                if (!lists.getIds().contains(id)) {
+                    action.accept(id, null);
+                    return;
+                }
+                List<ContingencyInfos> evaluation = cachedEvaluations.containsKey(id) ? cachedEvaluations.get(id) : evaluateContingencyList(lists, id, network, notFoundEquipmentIds, networkUuid, variantId);
+                action.accept(id, evaluation);
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Get the lists materialized on the network variant whose snapshot is fresh, the snapshots being decoded one at a
+     * time when their turn comes.
+     */
+    private Set<UUID> findSnapshotIds(List<UUID> contingencyListIds, UUID networkUuid, String variantId) {
+        return networkUuid != null ? contingencyListSnapshotRepository.findFreshIds(new HashSet<>(contingencyListIds), networkUuid, variantId) : Set.of();
+    }
+
+    /**
+     * Check the lists exist from the registry only, without loading their content.
+     */
+    @Transactional(readOnly = true)
+    public void checkContingencyListsExist(List<UUID> ids) {
+        checkContingencyListsExist(ids, ids.isEmpty() ? Set.of() : contingencyListRegistryRepository.findExistingIds(new HashSet<>(ids)));
+    }
+
+    private static void checkContingencyListsExist(List<UUID> ids, Set<UUID> existingIds) {
+        ids.stream().filter(id -> !existingIds.contains(id)).findFirst().ifPresent(id -> {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Contingency list " + id + " not found");
+        });
+    }
+
+    private <T> T withNetwork(UUID networkUuid, String variantId, PreloadingStrategy preloadingStrategy, Function<Network, T> action) {
         if (networkUuid == null) {
             // use an empty network, script might not have need to network
-            network = new NetworkFactoryImpl().createNetwork("empty", "empty");
-        } else {
-            network = networkStoreService.getNetwork(networkUuid, PreloadingStrategy.COLLECTION);
-            if (network == null) {
-                throw new PowsyblException("Network '" + networkUuid + "' not found");
-            }
-            if (variantId != null) {
-                network.getVariantManager().setWorkingVariant(variantId);
-            }
+            return action.apply(new NetworkFactoryImpl().createNetwork("empty", "empty"));
         }
-
-        return network;
+        return networkCache.withNetwork(networkUuid, variantId, preloadingStrategy, action);
     }
 
+    /**
+     * The content of the list is copied within the database, without being loaded.
+     */
     @Transactional
     public Optional<UUID> duplicateFilterBasedContingencyList(UUID sourceListId) {
-        Optional<PersistentContingencyList> contingencyList = doGetFilterBasedContingencyList(sourceListId);
-        if (contingencyList.isEmpty()) {
+        if (!filterBasedContingencyListRepository.existsById(sourceListId)) {
             throw createNotFoundException(sourceListId.toString(), "Form contingency list");
-        } else {
-            FilterBasedContingencyList filterContingencyList = createFilterBasedContingencyList(null, (FilterBasedContingencyList) contingencyList.get());
-            return Optional.of(filterContingencyList.getId());
         }
+        FilterBasedContingencyListEntity entity = new FilterBasedContingencyListEntity();
+        entity.setId(UUID.randomUUID());
+        // the list must be written before its content
+        FilterBasedContingencyListEntity savedEntity = filterBasedContingencyListRepository.saveAndFlush(entity);
+        contingencyListBulkRepository.copyFilterBasedContingencyListsContent(Map.of(savedEntity.getId(), sourceListId));
+        register(savedEntity, ContingencyListType.FILTERS);
+        return Optional.of(savedEntity.getId());
     }
 
+    /**
+     * The contingencies of the list are copied within the database, without being loaded.
+     */
     @Transactional
     public Optional<UUID> duplicateIdentifierContingencyList(UUID sourceListId) {
-        Optional<IdBasedContingencyList> idBasedContingencyList = doGetIdBasedContingencyList(sourceListId, null).map(s -> createIdBasedContingencyList(null, (IdBasedContingencyList) s));
-        if (!idBasedContingencyList.isPresent()) {
+        if (!idBasedContingencyListRepository.existsById(sourceListId)) {
             throw createNotFoundException(sourceListId.toString(), "Identifier contingency list");
-        } else {
-            return Optional.of(idBasedContingencyList.get().getId());
         }
+        IdBasedContingencyListEntity entity = new IdBasedContingencyListEntity();
+        entity.setId(UUID.randomUUID());
+        // the list must be written before its contingencies
+        IdBasedContingencyListEntity savedEntity = idBasedContingencyListRepository.saveAndFlush(entity);
+        identifierListBulkRepository.copyAll(sourceListId, savedEntity.getId());
+        register(savedEntity, ContingencyListType.IDENTIFIERS);
+        return Optional.of(savedEntity.getId());
     }
 
     @Transactional
     public void modifyIdBasedContingencyList(UUID id, IdBasedContingencyList idBasedContingencyList, String userId) {
+        List<IdentifierListEntity> identifierLists = IdBasedContingencyListEntity.createIdentifierListEntities(idBasedContingencyList.getIdentifierContingencyList());
+        IdBasedContingencyListEntity entity = idBasedContingencyListRepository.getReferenceById(id);
         // throw if not found
-        idBasedContingencyListRepository.save(idBasedContingencyListRepository.getReferenceById(id).update(idBasedContingencyList));
-        notificationService.emitElementUpdated(id, userId);
+        entity.setModificationDate(Instant.now());
+        writeIdentifierListsDiff(id, identifierListBulkRepository.findAll(id), identifierLists);
+        idBasedContingencyListModified(entity, userId);
+    }
+
+    @Transactional
+    public void patchIdBasedContingencyList(UUID id, IdentifierContingencyListPatch patch, String userId) {
+        IdBasedContingencyListEntity entity = idBasedContingencyListRepository.getReferenceById(id);
+        // throw if not found
+        entity.setModificationDate(Instant.now());
+        List<IdentifierListEntity> storedLists = identifierListBulkRepository.findAll(id);
+
+        Map<String, IdentifierListEntity> modifiedLists = new HashMap<>();
+        patch.modifiedContingencies().forEach(contingency -> {
+            IdentifierListEntity identifierList = IdBasedContingencyListEntity.createIdentifierListEntity(id.toString(), contingency.name(), contingency.equipmentIds());
+            if (modifiedLists.put(identifierList.getName(), identifierList) != null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Contingency " + identifierList.getName() + " modified more than once in contingency list " + id);
+            }
+        });
+        Set<String> removedNames = new HashSet<>(patch.removedContingencies());
+        modifiedLists.keySet().stream().filter(removedNames::contains).findFirst().ifPresent(name -> {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Contingency " + name + " both modified and removed in contingency list " + id);
+        });
+        Set<String> storedNames = storedLists.stream().map(IdentifierListEntity::getName).collect(Collectors.toSet());
+        Stream.concat(modifiedLists.keySet().stream(), removedNames.stream()).filter(name -> !storedNames.contains(name)).findFirst().ifPresent(name -> {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Contingency " + name + " not found in contingency list " + id);
+        });
+        // the names stay unique, as when a list is created or modified as a whole
+        Set<String> names = new HashSet<>(storedNames);
+        names.removeAll(removedNames);
+        List<IdentifierListEntity> addedLists = patch.addedContingencies().stream()
+            .map(contingency -> IdBasedContingencyListEntity.createIdentifierListEntity(id.toString(), contingency.name(), contingency.equipmentIds()))
+            .toList();
+        addedLists.stream().map(IdentifierListEntity::getName).filter(name -> !names.add(name)).findFirst().ifPresent(name -> {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Contingency " + name + " already in contingency list " + id);
+        });
+
+        List<IdentifierListEntity> identifierLists = new ArrayList<>();
+        storedLists.stream()
+            .filter(storedList -> !removedNames.contains(storedList.getName()))
+            .forEach(storedList -> identifierLists.add(modifiedLists.getOrDefault(storedList.getName(), storedList)));
+        identifierLists.addAll(addedLists);
+        if (identifierLists.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Contingency list " + id + " empty");
+        }
+
+        writeIdentifierListsDiff(id, storedLists, identifierLists);
+        idBasedContingencyListModified(entity, userId);
+    }
+
+    /**
+     * Write only the differences between the stored contingencies of a list and the new ones. The contingencies are
+     * matched by name: the unchanged ones are left as is, the changed or moved ones are updated in place, and the
+     * others are deleted or inserted.
+     */
+    private void writeIdentifierListsDiff(UUID id, List<IdentifierListEntity> storedLists, List<IdentifierListEntity> identifierLists) {
+        Map<String, Deque<Integer>> storedOrdersByName = new HashMap<>();
+        for (int order = 0; order < storedLists.size(); order++) {
+            storedOrdersByName.computeIfAbsent(storedLists.get(order).getName(), k -> new ArrayDeque<>()).add(order);
+        }
+
+        Map<Integer, IdentifierListEntity> insertedLists = new LinkedHashMap<>();
+        Map<Integer, IdentifierListEntity> updatedLists = new LinkedHashMap<>();
+        for (int order = 0; order < identifierLists.size(); order++) {
+            IdentifierListEntity identifierList = identifierLists.get(order);
+            Deque<Integer> storedOrders = storedOrdersByName.get(identifierList.getName());
+            Integer storedOrder = storedOrders != null ? storedOrders.poll() : null;
+            if (storedOrder == null) {
+                insertedLists.put(order, identifierList);
+            } else {
+                IdentifierListEntity storedList = storedLists.get(storedOrder);
+                if (storedOrder != order || !storedList.getEquipmentIds().equals(identifierList.getEquipmentIds())) {
+                    updatedLists.put(order, new IdentifierListEntity(storedList.getId(), storedList.getName(), identifierList.getEquipmentIds()));
+                }
+            }
+        }
+        List<UUID> deletedIds = storedOrdersByName.values().stream()
+            .flatMap(Collection::stream)
+            .map(storedOrder -> storedLists.get(storedOrder).getId())
+            .toList();
+
+        identifierListBulkRepository.deleteAllById(deletedIds);
+        identifierListBulkRepository.updateAll(updatedLists);
+        identifierListBulkRepository.insertAll(id, insertedLists);
+    }
+
+    private void idBasedContingencyListModified(IdBasedContingencyListEntity entity, String userId) {
+        register(idBasedContingencyListRepository.saveAndFlush(entity), ContingencyListType.IDENTIFIERS);
+        evaluationCache.invalidateElement(entity.getId());
+        notificationService.emitElementUpdated(entity.getId(), userId);
     }
 
     @Transactional
     public void modifyFilterBasedContingencyList(UUID id, FilterBasedContingencyList contingencyList, String userId) {
         // throw if not found
-        filterBasedContingencyListRepository.save(filterBasedContingencyListRepository.getReferenceById(id).update(contingencyList));
+        register(filterBasedContingencyListRepository.saveAndFlush(filterBasedContingencyListRepository.getReferenceById(id).update(contingencyList)), ContingencyListType.FILTERS);
+        evaluationCache.invalidateElement(id);
         notificationService.emitElementUpdated(id, userId);
     }
 
     @Transactional
     public void deleteContingencyList(UUID id) throws EmptyResultDataAccessException {
         Objects.requireNonNull(id);
-        // if there is no contingency list by this Id, deleted count == 0
-        if (idBasedContingencyListRepository.deleteIdBasedContingencyListEntityById(id) == 0
-            && filterBasedContingencyListRepository.deleteFilterBasedContingencyListEntityById(id) == 0) {
+        if (deleteContingencyLists(List.of(id)) == 0) {
             throw new EmptyResultDataAccessException("No element found", 1);
         }
     }
 
-    private static IdBasedContingencyList fromIdBasedContingencyListEntity(IdBasedContingencyListEntity entity, Network network) {
+    /**
+     * Delete contingency lists of any type, along with their content, with a few set-based statements whatever the
+     * number and the size of the lists. Unknown ids are ignored, the number of deleted lists is returned.
+     */
+    @Transactional
+    public int deleteContingencyLists(Collection<UUID> ids) {
+        Objects.requireNonNull(ids);
+        Map<ContingencyListType, Set<UUID>> idsByType = getContingencyListIdsByType(ids);
+        Set<UUID> idBasedListIds = idsByType.get(ContingencyListType.IDENTIFIERS);
+        if (idBasedListIds != null) {
+            idBasedContingencyListRepository.deleteIdentifierListsByContingencyListIds(idBasedListIds);
+            idBasedContingencyListRepository.deleteByIds(idBasedListIds);
+        }
+        Set<UUID> filterBasedListIds = idsByType.get(ContingencyListType.FILTERS);
+        if (filterBasedListIds != null) {
+            filterBasedContingencyListRepository.deleteEquipmentTypesByContingencyListIds(filterBasedListIds);
+            filterBasedContingencyListRepository.deleteEquipmentTypesByFilterByContingencyListIds(filterBasedListIds);
+            filterBasedContingencyListRepository.deleteFiltersByContingencyListIds(filterBasedListIds);
+            filterBasedContingencyListRepository.deleteByIds(filterBasedListIds);
+        }
+        if (idsByType.isEmpty()) {
+            return 0;
+        }
+        Set<UUID> deletedIds = idsByType.values().stream().flatMap(Set::stream).collect(Collectors.toSet());
+        contingencyListRegistryRepository.deleteByIds(deletedIds);
+        deletedIds.forEach(evaluationCache::invalidateElement);
+        return deletedIds.size();
+    }
+
+    private static IdBasedContingencyList fromIdBasedContingencyListEntity(IdBasedContingencyListEntity entity) {
+        return fromIdBasedContingencyListEntity(entity, entity.getIdentifiersListEntities());
+    }
+
+    private static IdBasedContingencyList fromIdBasedContingencyListEntity(IdBasedContingencyListEntity entity, List<IdentifierListEntity> identifierLists) {
+        List<NetworkElementIdentifier> listOfNetworkElementIdentifierList = new ArrayList<>();
+        identifierLists.forEach(identifierList -> {
+            List<NetworkElementIdentifier> networkElementIdentifiers = new ArrayList<>();
+            identifierList.getEquipmentIds().forEach(equipmentId -> networkElementIdentifiers.add(new IdBasedNetworkElementIdentifier(equipmentId)));
+            listOfNetworkElementIdentifierList.add(new NetworkElementIdentifierContingencyList(networkElementIdentifiers, identifierList.getName()));
+        });
+        return new IdBasedContingencyList(entity.getId(),
+                entity.getModificationDate(),
+                new IdentifierContingencyList(entity.getId().toString(), listOfNetworkElementIdentifierList),
+                new HashMap<>());
+    }
+
+    /**
+     * Build the list to evaluate from the equipments already known to be missing from the network: they are reported as
+     * not found elements and left out of the contingencies, so that the evaluation does not look them up again.
+     * A contingency without any equipment found is left out, as the evaluation would not build it anyway.
+     */
+    private static IdBasedContingencyList toEvaluatedIdBasedContingencyList(IdBasedContingencyListEntity entity, Set<String> notFoundEquipmentIds) {
         List<NetworkElementIdentifier> listOfNetworkElementIdentifierList = new ArrayList<>();
         Map<String, Set<String>> notFoundElements = new HashMap<>();
         entity.getIdentifiersListEntities().forEach(identifierList -> {
             List<NetworkElementIdentifier> networkElementIdentifiers = new ArrayList<>();
             identifierList.getEquipmentIds().forEach(equipmentId -> {
-                if (network != null && network.getIdentifiable(equipmentId) == null) {
-                    Set<String> ids = notFoundElements.computeIfAbsent(identifierList.getName(), k -> new HashSet<>());
-                    ids.add(equipmentId);
+                if (notFoundEquipmentIds.contains(equipmentId)) {
+                    notFoundElements.computeIfAbsent(identifierList.getName(), k -> new HashSet<>()).add(equipmentId);
+                } else {
+                    networkElementIdentifiers.add(new IdBasedNetworkElementIdentifier(equipmentId));
                 }
-                networkElementIdentifiers.add(new IdBasedNetworkElementIdentifier(equipmentId));
             });
-            listOfNetworkElementIdentifierList.add(new NetworkElementIdentifierContingencyList(networkElementIdentifiers, identifierList.getName()));
+            if (!networkElementIdentifiers.isEmpty()) {
+                listOfNetworkElementIdentifierList.add(new NetworkElementIdentifierContingencyList(networkElementIdentifiers, identifierList.getName()));
+            }
         });
         return new IdBasedContingencyList(entity.getId(),
                 entity.getModificationDate(),
@@ -295,16 +929,107 @@ public class ContingencyListService {
             entity.getSelectedEquipmentTypesByFilter().stream().map(EquipmentTypesByFilterEntity::toDto).toList());
     }
 
+    @Transactional
     public IdBasedContingencyList createIdBasedContingencyList(UUID id, IdBasedContingencyList idBasedContingencyList) {
-        IdBasedContingencyListEntity entity = new IdBasedContingencyListEntity(idBasedContingencyList);
+        List<IdentifierListEntity> identifierLists = IdBasedContingencyListEntity.createIdentifierListEntities(idBasedContingencyList.getIdentifierContingencyList());
+        IdBasedContingencyListEntity entity = new IdBasedContingencyListEntity();
+        entity.setId(id == null ? UUID.randomUUID() : id);
+        // the list must be written before its contingencies
+        IdBasedContingencyListEntity savedEntity = idBasedContingencyListRepository.saveAndFlush(entity);
+        identifierListBulkRepository.insertAll(savedEntity.getId(), identifierLists);
+        register(savedEntity, ContingencyListType.IDENTIFIERS);
+        return fromIdBasedContingencyListEntity(savedEntity, identifierLists);
+    }
+
+    /**
+     * Create an identifier contingency list from contingencies consumed as they come: they are written in batches,
+     * so that the whole list is never held in memory.
+     */
+    @Transactional
+    public ContingencyListMetadata importIdBasedContingencyList(UUID id, Iterator<IdentifierContingency> contingencies) {
+        IdBasedContingencyListEntity entity = new IdBasedContingencyListEntity();
         entity.setId(id == null ? UUID.randomUUID() : id);
-        return fromIdBasedContingencyListEntity(idBasedContingencyListRepository.save(entity), null);
+        // the list must be written before its contingencies
+        IdBasedContingencyListEntity savedEntity = idBasedContingencyListRepository.saveAndFlush(entity);
+        String listName = savedEntity.getId().toString();
+        Iterator<IdentifierListEntity> identifierLists = StreamSupport.stream(Spliterators.spliteratorUnknownSize(contingencies, Spliterator.ORDERED), false)
+            .map(contingency -> IdBasedContingencyListEntity.createIdentifierListEntity(listName, contingency.name(), contingency.equipmentIds()))
+            .iterator();
+        if (identifierListBulkRepository.insertAll(savedEntity.getId(), identifierLists) == 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Contingency list " + listName + " empty");
+        }
+        register(savedEntity, ContingencyListType.IDENTIFIERS);
+        return new ContingencyListMetadataImpl(savedEntity.getId(), ContingencyListType.IDENTIFIERS, savedEntity.getModificationDate());
     }
 
+    @Transactional
     public FilterBasedContingencyList createFilterBasedContingencyList(UUID id, FilterBasedContingencyList contingencyList) {
         FilterBasedContingencyListEntity entity = new FilterBasedContingencyListEntity(contingencyList);
         entity.setId(id == null ? UUID.randomUUID() : id);
-        return fromFilterBasedContingencyListEntity(filterBasedContingencyListRepository.save(entity));
+        FilterBasedContingencyListEntity savedEntity = filterBasedContingencyListRepository.save(entity);
+        register(savedEntity, ContingencyListType.FILTERS);
+        return fromFilterBasedContingencyListEntity(savedEntity);
+    }
+
+    /**
+     * Create contingency lists of any type in a single transaction, all the lists and their content being written
+     * with JDBC batches. The ids of the created lists are returned in the order of the lists.
+     */
+    @Transactional
+    public List<UUID> createContingencyLists(List<AbstractContingencyList> contingencyLists) {
+        List<UUID> ids = new ArrayList<>();
+        Map<UUID, List<IdentifierListEntity>> identifierListsById = new LinkedHashMap<>();
+        List<FilterBasedContingencyListEntity> filterBasedEntities = new ArrayList<>();
+        for (AbstractContingencyList contingencyList : contingencyLists) {
+            UUID id = contingencyList.getId() != null ? contingencyList.getId() : UUID.randomUUID();
+            switch (contingencyList.getType()) {
+                case IDENTIFIERS -> identifierListsById.put(id, IdBasedContingencyListEntity.createIdentifierListEntities(((IdBasedContingencyList) contingencyList).getIdentifierContingencyList()));
+                case FILTERS -> {
+                    FilterBasedContingencyListEntity entity = new FilterBasedContingencyListEntity((FilterBasedContingencyList) contingencyList);
+                    entity.setId(id);
+                    filterBasedEntities.add(entity);
+                }
+            }
+            ids.add(id);
+        }
+
+        Instant modificationDate = Instant.now();
+        contingencyListBulkRepository.insertContingencyLists(ContingencyListType.IDENTIFIERS, identifierListsById.keySet(), modificationDate);
+        identifierListBulkRepository.insertAll(identifierListsById);
+        contingencyListBulkRepository.insertContingencyLists(ContingencyListType.FILTERS, filterBasedEntities.stream().map(FilterBasedContingencyListEntity::getId).toList(), modificationDate);
+        contingencyListBulkRepository.insertFilterBasedContingencyListsContent(filterBasedEntities);
+        return ids;
+    }
+
+    /**
+     * Duplicate contingency lists of any type in a single transaction, their content being copied within the database.
+     * The ids of the copies are returned in the order of the source lists.
+     */
+    @Transactional
+    public List<UUID> duplicateContingencyLists(List<UUID> sourceListIds) {
+        Map<ContingencyListType, Set<UUID>> sourceIdsByType = getContingencyListIdsByType(sourceListIds);
+        List<UUID> ids = new ArrayList<>();
+        // keyed by copy id, as the same list may be requested several times
+        Map<ContingencyListType, Map<UUID, UUID>> sourceIdsByCopyIdByType = new EnumMap<>(ContingencyListType.class);
+        for (UUID sourceListId : sourceListIds) {
+            ContingencyListType type = sourceIdsByType.entrySet().stream()
+                .filter(entry -> entry.getValue().contains(sourceListId))
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElseThrow(() -> createNotFoundException(sourceListId.toString(), "Contingency list"));
+            UUID id = UUID.randomUUID();
+            sourceIdsByCopyIdByType.computeIfAbsent(type, t -> new LinkedHashMap<>()).put(id, sourceListId);
+            ids.add(id);
+        }
+
+        Instant modificationDate = Instant.now();
+        Map<UUID, UUID> idBasedSourceIds = sourceIdsByCopyIdByType.getOrDefault(ContingencyListType.IDENTIFIERS, Map.of());
+        contingencyListBulkRepository.insertContingencyLists(ContingencyListType.IDENTIFIERS, idBasedSourceIds.keySet(), modificationDate);
+        identifierListBulkRepository.copyAll(idBasedSourceIds);
+        Map<UUID, UUID> filterBasedSourceIds = sourceIdsByCopyIdByType.getOrDefault(ContingencyListType.FILTERS, Map.of());
+        contingencyListBulkRepository.insertContingencyLists(ContingencyListType.FILTERS, filterBasedSourceIds.keySet(), modificationDate);
+        contingencyListBulkRepository.copyFilterBasedContingencyListsContent(filterBasedSourceIds);
+        return ids;
     }
 
     public ResponseStatusException createNotFoundException(String resourceId, String resourceType) {
@@ -316,20 +1041,13 @@ public class ContingencyListService {
         Objects.requireNonNull(ids);
 
         List<AbstractContingencyList> result = new ArrayList<>();
+        ContingencyListEntities lists = findContingencyListEntities(ids);
 
         // Get all id based contingency lists
-        List<AbstractContingencyList> idBasedLists = idBasedContingencyListRepository.findAllById(ids)
-                .stream()
-                .map(entity -> fromIdBasedContingencyListEntity(entity, null))
-                .collect(Collectors.toList());
-        result.addAll(idBasedLists);
+        lists.idBasedLists().values().forEach(entity -> result.add(fromIdBasedContingencyListEntity(entity)));
 
         // Get all filter based contingency lists
-        List<AbstractContingencyList> filterBasedLists = filterBasedContingencyListRepository.findAllById(ids)
-                .stream()
-                .map(ContingencyListService::fromFilterBasedContingencyListEntity)
-                .collect(Collectors.toList());
-        result.addAll(filterBasedLists);
+        lists.filterBasedLists().values().forEach(entity -> result.add(fromFilterBasedContingencyListEntity(entity)));
 
         return result;
     }
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server;
+
+import jakarta.annotation.PreDestroy;
+import org.gridsuite.actions.dto.evaluation.ContingencyListExportResult;
+import org.gridsuite.actions.server.repositories.ContingencyListSnapshotRepository;
+import org.gridsuite.actions.server.repositories.ContingencyListSnapshotRepository.Key;
+import org.gridsuite.actions.server.repositories.ContingencyListSnapshotRepository.StaleSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Materialization of contingency lists on network variants: the contingencies of a list attached to a network variant
+ * are evaluated in the background and stored, so that the exports of the list on this variant serve them instead of
+ * evaluating the list.
+ * <p>
+ * The snapshots are invalidated by the updates of their network, of their list or of the filters of their list, and
+ * then evaluated again by a single background worker. Stale snapshots are never served: the list is evaluated instead.
+ * The refresh is also run periodically, to catch up with the updates missed while the server was stopped.
+ */
+@Service
+public class ContingencyListSnapshotService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContingencyListSnapshotService.class);
+
+    private final ContingencyListSnapshotRepository contingencyListSnapshotRepository;
+
+    private final ContingencyListService contingencyListService;
+
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("snapshot-refresh-"));
+
+    // a refresh is already queued, the updates meanwhile will be taken into account by it
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+
+    private final int refreshPageSize;
+
+    public ContingencyListSnapshotService(ContingencyListSnapshotRepository contingencyListSnapshotRepository,
+                                          ContingencyListService contingencyListService,
+                                          @Value("${gridsuite.contingency-snapshots.refresh-page-size:100}") int refreshPageSize) {
+        this.contingencyListSnapshotRepository = contingencyListSnapshotRepository;
+        this.contingencyListService = contingencyListService;
+        this.refreshPageSize = refreshPageSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    public void attach(UUID contingencyListId, UUID networkUuid, String variantId) {
+        contingencyListService.checkContingencyListsExist(List.of(contingencyListId));
+        contingencyListSnapshotRepository.insert(new Key(contingencyListId, networkUuid, variantId));
+        requestRefresh();
+    }
+
+    public boolean detach(UUID contingencyListId, UUID networkUuid, String variantId) {
+        return contingencyListSnapshotRepository.delete(new Key(contingencyListId, networkUuid, variantId));
+    }
+
+    public void invalidateNetwork(UUID networkUuid) {
+        if (contingencyListSnapshotRepository.invalidateNetwork(networkUuid) > 0) {
+            requestRefresh();
+        }
+    }
+
+    /**
+     * Invalidate the snapshots of a list, or of the lists relying on a filter.
+     */
+    public void invalidateElement(UUID elementUuid) {
+        if (contingencyListSnapshotRepository.invalidateElement(elementUuid) > 0) {
+            requestRefresh();
+        }
+    }
+
+    private void requestRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            refreshExecutor.execute(() -> {
+                refreshPending.set(false);
+                refreshStaleSnapshots();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${gridsuite.contingency-snapshots.refresh-delay:PT10M}")
+    public void refreshPeriodically() {
+        requestRefresh();
+    }
+
+    private void refreshStaleSnapshots() {
+        // the snapshots are paged by key, so that those failing to refresh are not read again before the next refresh
+        List<StaleSnapshot> snapshots = contingencyListSnapshotRepository.findStale(null, refreshPageSize);
+        while (!snapshots.isEmpty()) {
+            snapshots.forEach(this::refreshSnapshot);
+            snapshots = snapshots.size() < refreshPageSize ? List.of()
+                : contingencyListSnapshotRepository.findStale(snapshots.get(snapshots.size() - 1).key(), refreshPageSize);
+        }
+    }
+
+    private void refreshSnapshot(StaleSnapshot snapshot) {
+        Key key = snapshot.key();
+        try {
+            ContingencyListExportResult result = contingencyListService.exportContingencyList(List.of(key.contingencyListId()), key.networkUuid(), key.variantId());
+            if (result.contingencyListsNotFound().isEmpty() && !contingencyListSnapshotRepository.update(snapshot, result.contingenciesFound())) {
+                LOGGER.debug("Snapshot {} invalidated while being refreshed", key);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not refresh the snapshot {}: {}", key, e.getMessage());
+        }
+    }
+}
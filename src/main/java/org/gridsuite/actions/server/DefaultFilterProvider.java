@@ -6,28 +6,84 @@
  */
 package org.gridsuite.actions.server;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.gridsuite.actions.FilterProvider;
 import org.gridsuite.actions.server.service.FilterService;
 import org.gridsuite.filter.AbstractFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.UUID;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Filter provider keeping the filters fetched from the filter server in a bounded cache, so that evaluating the same
+ * filters again does not make a round trip to the filter server. A cached filter is evicted when it is updated.
+ *
  * @author Kevin Le Saulnier <kevin.le-saulnier at rte-france.com>
  */
 @Component
 public class DefaultFilterProvider implements FilterProvider {
 
+    public static final String CACHE_NAME = "filters";
+
     private final FilterService filterService;
 
-    public DefaultFilterProvider(FilterService filterService) {
+    private final Cache<UUID, AbstractFilter> filters;
+
+    // incremented on each invalidation, to detect the ones happening while filters are fetched
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    public DefaultFilterProvider(FilterService filterService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${gridsuite.filter-cache.max-size:1000}") long maxSize,
+                                 @Value("${gridsuite.filter-cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
         this.filterService = filterService;
+        this.filters = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, filters, CACHE_NAME);
     }
 
+    /**
+     * Only the filters missing from the cache are fetched from the filter server, with a single call.
+     * The unknown filters are absent from the result.
+     */
     @Override
     public List<AbstractFilter> getFilters(List<UUID> filtersUuids) {
-        return filterService.getFilters(filtersUuids);
+        if (filtersUuids.isEmpty()) {
+            return filterService.getFilters(filtersUuids);
+        }
+        Map<UUID, AbstractFilter> foundFilters = new HashMap<>(filters.getAllPresent(filtersUuids));
+        List<UUID> missingUuids = filtersUuids.stream().filter(uuid -> !foundFilters.containsKey(uuid)).distinct().toList();
+        if (!missingUuids.isEmpty()) {
+            long invalidationCountBeforeFetch = invalidationCount.get();
+            List<AbstractFilter> fetchedFilters = filterService.getFilters(missingUuids);
+            fetchedFilters.forEach(filter -> {
+                foundFilters.put(filter.getId(), filter);
+                filters.put(filter.getId(), filter);
+            });
+            if (invalidationCount.get() != invalidationCountBeforeFetch) {
+                // the fetched filters may be outdated
+                filters.invalidateAll(fetchedFilters.stream().map(AbstractFilter::getId).toList());
+            }
+        }
+        return filtersUuids.stream().distinct().map(foundFilters::get).filter(Objects::nonNull).toList();
+    }
+
+    public void invalidate(UUID filterUuid) {
+        invalidationCount.incrementAndGet();
+        filters.invalidate(filterUuid);
+    }
+
+    public void invalidateAll() {
+        invalidationCount.incrementAndGet();
+        filters.invalidateAll();
     }
 }
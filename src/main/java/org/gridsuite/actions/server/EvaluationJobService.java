@@ -0,0 +1,281 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.gridsuite.actions.dto.evaluation.ContingencyInfos;
+import org.gridsuite.actions.server.dto.EvaluationJobInfos;
+import org.gridsuite.actions.server.dto.EvaluationJobStatus;
+import org.gridsuite.actions.server.entities.EvaluationJobEntity;
+import org.gridsuite.actions.server.repositories.EvaluationJobRepository;
+import org.gridsuite.actions.server.repositories.EvaluationJobResultRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Asynchronous evaluations of contingency lists, for the evaluations too long to be awaited within an HTTP request.
+ * <p>
+ * The jobs are run by {@code gridsuite.evaluation-jobs.parallelism} workers, the other ones waiting for a worker to be
+ * released. The contingency infos they evaluate are stored as gzipped JSON pages of {@code gridsuite.evaluation-jobs.page-size}
+ * contingencies, written as soon as they are full so that a worker holds a single page, and the receiver given at
+ * submission is notified on the broker at the end of the job.
+ * Jobs expire {@code gridsuite.evaluation-jobs.time-to-live} after their submission, then after their end, and are
+ * deleted along with their result.
+ * <p>
+ * The jobs are queued in memory: the server running them refreshes their heartbeat every
+ * {@code gridsuite.evaluation-jobs.heartbeat-delay}, and the jobs left pending or running by a stopped server, whose
+ * heartbeat is older than {@code gridsuite.evaluation-jobs.orphan-timeout}, are failed and notified by the servers
+ * still running, from their start on. They are not resumed.
+ */
+@Service
+public class EvaluationJobService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EvaluationJobService.class);
+
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 255;
+
+    private static final String ORPHANED_JOB_ERROR_MESSAGE = "Evaluation job interrupted by a server stop";
+
+    private final EvaluationJobRepository evaluationJobRepository;
+
+    private final EvaluationJobResultRepository evaluationJobResultRepository;
+
+    private final ContingencyListService contingencyListService;
+
+    private final NotificationService notificationService;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService jobExecutor;
+
+    // the jobs queued or running on this server, whose heartbeat it refreshes
+    private final Set<UUID> activeJobIds = ConcurrentHashMap.newKeySet();
+
+    private final int pageSize;
+
+    private final Duration timeToLive;
+
+    private final Duration orphanTimeout;
+
+    public EvaluationJobService(EvaluationJobRepository evaluationJobRepository,
+                                EvaluationJobResultRepository evaluationJobResultRepository,
+                                ContingencyListService contingencyListService,
+                                NotificationService notificationService,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${gridsuite.evaluation-jobs.parallelism:1}") int parallelism,
+                                @Value("${gridsuite.evaluation-jobs.page-size:1000}") int pageSize,
+                                @Value("${gridsuite.evaluation-jobs.time-to-live:PT24H}") Duration timeToLive,
+                                @Value("${gridsuite.evaluation-jobs.orphan-timeout:PT5M}") Duration orphanTimeout) {
+        this.evaluationJobRepository = evaluationJobRepository;
+        this.evaluationJobResultRepository = evaluationJobResultRepository;
+        this.contingencyListService = contingencyListService;
+        this.notificationService = notificationService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // each job may load a whole network: they are bounded whatever the threading model
+        this.jobExecutor = Executors.newFixedThreadPool(Math.max(parallelism, 1), new CustomizableThreadFactory("evaluation-job-"));
+        this.pageSize = Math.max(pageSize, 1);
+        this.timeToLive = timeToLive;
+        this.orphanTimeout = orphanTimeout;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    public UUID submit(List<UUID> contingencyListIds, UUID networkUuid, String variantId, String receiver) {
+        contingencyListService.checkContingencyListsExist(contingencyListIds);
+        EvaluationJobEntity job = new EvaluationJobEntity();
+        job.setId(UUID.randomUUID());
+        job.setStatus(EvaluationJobStatus.PENDING);
+        job.setContingencyListIds(contingencyListIds);
+        job.setNetworkUuid(networkUuid);
+        job.setVariantId(variantId);
+        job.setReceiver(receiver);
+        job.setExpirationDate(Instant.now().plus(timeToLive));
+        job.setHeartbeatDate(Instant.now());
+        // the job is committed before being run, so that its worker finds it
+        evaluationJobRepository.save(job);
+        activeJobIds.add(job.getId());
+        jobExecutor.execute(() -> {
+            try {
+                run(job.getId());
+            } finally {
+                activeJobIds.remove(job.getId());
+            }
+        });
+        return job.getId();
+    }
+
+    /**
+     * Run a job, the job being read and updated in short transactions, none of them being held during the evaluation.
+     */
+    private void run(UUID jobId) {
+        Optional<EvaluationJobEntity> pendingJob = evaluationJobRepository.findById(jobId);
+        if (pendingJob.isEmpty()) {
+            // expired meanwhile
+            return;
+        }
+        EvaluationJobEntity job = pendingJob.get();
+        job.setStatus(EvaluationJobStatus.RUNNING);
+        job = evaluationJobRepository.save(job);
+        try {
+            ResultPageWriter pageWriter = new ResultPageWriter(jobId);
+            contingencyListService.exportContingencyInfosList(job.getContingencyListIds(), job.getNetworkUuid(), job.getVariantId(), pageWriter);
+            pageWriter.flush();
+            job.setStatus(EvaluationJobStatus.SUCCEEDED);
+            job.setNbContingencies(pageWriter.nbContingencies);
+            job.setNbPages(pageWriter.nbPages);
+            job.setExpirationDate(Instant.now().plus(timeToLive));
+            evaluationJobRepository.save(job);
+        } catch (RuntimeException | Error e) {
+            // errors such as an exhausted heap fail the job as well, so that its receiver is not left waiting
+            LOGGER.error("Evaluation job {} failed", jobId, e);
+            String errorMessage = Optional.ofNullable(e.getMessage()).orElse(e.getClass().getSimpleName());
+            job.setStatus(EvaluationJobStatus.FAILED);
+            job.setErrorMessage(errorMessage.substring(0, Math.min(errorMessage.length(), MAX_ERROR_MESSAGE_LENGTH)));
+            job.setExpirationDate(Instant.now().plus(timeToLive));
+            evaluationJobRepository.save(job);
+        }
+        notificationService.emitEvaluationJobFinished(jobId, job.getStatus(), job.getReceiver());
+    }
+
+    /**
+     * Store the contingency infos of a job page by page, as they are evaluated.
+     */
+    private final class ResultPageWriter implements Consumer<ContingencyInfos> {
+
+        private final UUID jobId;
+
+        private final List<ContingencyInfos> page = new ArrayList<>();
+
+        private int nbContingencies;
+
+        private int nbPages;
+
+        private ResultPageWriter(UUID jobId) {
+            this.jobId = jobId;
+        }
+
+        @Override
+        public void accept(ContingencyInfos contingencyInfos) {
+            page.add(contingencyInfos);
+            nbContingencies++;
+            if (page.size() == pageSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (page.isEmpty()) {
+                return;
+            }
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            try (GZIPOutputStream outputStream = new GZIPOutputStream(content)) {
+                objectMapper.writeValue(outputStream, page);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            int pageNumber = nbPages++;
+            evaluationJobResultRepository.insert(jobId, pageNumber, content.toByteArray());
+            page.clear();
+        }
+    }
+
+    public Optional<EvaluationJobInfos> getJob(UUID jobId) {
+        return evaluationJobRepository.findById(jobId)
+                .filter(job -> job.getExpirationDate().isAfter(Instant.now()))
+                .map(EvaluationJobEntity::toDto);
+    }
+
+    /**
+     * Get a page of the contingency infos evaluated by a succeeded job, as a gzipped JSON array.
+     */
+    public byte[] getCompressedResultPage(UUID jobId, int pageNumber) {
+        EvaluationJobInfos job = getJob(jobId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Evaluation job " + jobId + " not found"));
+        if (job.status() != EvaluationJobStatus.SUCCEEDED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Evaluation job " + jobId + " is " + job.status());
+        }
+        return evaluationJobResultRepository.find(jobId, pageNumber)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Page " + pageNumber + " of evaluation job " + jobId + " not found"));
+    }
+
+    public static byte[] decompress(byte[] page) {
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(page))) {
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Refresh the heartbeat of the jobs of this server, then fail the jobs left behind by a stopped server. Also run at
+     * the start of the server, so that the jobs it left behind before a restart are failed as soon as they time out.
+     */
+    @Scheduled(fixedDelayString = "${gridsuite.evaluation-jobs.heartbeat-delay:PT1M}")
+    public void checkJobs() {
+        Set<UUID> jobIds = Set.copyOf(activeJobIds);
+        if (!jobIds.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> evaluationJobRepository.updateHeartbeatDate(jobIds, Instant.now()));
+        }
+        failOrphanedJobs();
+    }
+
+    private void failOrphanedJobs() {
+        Instant heartbeatDate = Instant.now().minus(orphanTimeout);
+        for (UUID jobId : evaluationJobRepository.findOrphanedIds(heartbeatDate)) {
+            Integer nbFailedJobs = transactionTemplate.execute(status ->
+                evaluationJobRepository.failOrphaned(jobId, ORPHANED_JOB_ERROR_MESSAGE, Instant.now().plus(timeToLive), heartbeatDate));
+            if (nbFailedJobs != null && nbFailedJobs > 0) {
+                LOGGER.warn("Evaluation job {} failed: its server has stopped", jobId);
+                evaluationJobRepository.findById(jobId).ifPresent(job -> notificationService.emitEvaluationJobFinished(jobId, job.getStatus(), job.getReceiver()));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${gridsuite.evaluation-jobs.cleanup-delay:PT1H}")
+    @Transactional
+    public void deleteExpiredJobs() {
+        int nbDeletedJobs = evaluationJobRepository.deleteExpired(Instant.now());
+        if (nbDeletedJobs > 0) {
+            LOGGER.info("{} expired evaluation jobs deleted", nbDeletedJobs);
+        }
+    }
+}
@@ -12,27 +12,77 @@ package org.gridsuite.actions.server;
  */
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import jakarta.annotation.PreDestroy;
+import org.gridsuite.actions.server.dto.EvaluationJobStatus;
+import org.gridsuite.actions.server.repositories.ElementUpdateOutboxRepository;
+import org.gridsuite.actions.server.repositories.ElementUpdateOutboxRepository.ElementUpdate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.messaging.Message;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * The element update notifications go through an outbox table written in the transaction of the update: they are
+ * published by a background publisher once the transaction is committed, in batches of
+ * {@code gridsuite.notifications.outbox-batch-size}, and never for rolled back updates. A notification is deleted
+ * from the outbox in the transaction publishing it, so it is published again if this transaction fails. The outbox
+ * is also drained periodically, for the notifications left by a stopped server.
+ */
 @Service
 public class NotificationService {
     private static final String CATEGORY_BROKER_OUTPUT = ContingencyListService.class.getName() + ".output-broker-messages";
     private static final Logger MESSAGE_OUTPUT_LOGGER = LoggerFactory.getLogger(CATEGORY_BROKER_OUTPUT);
+    private static final Logger LOGGER = LoggerFactory.getLogger(NotificationService.class);
 
     public static final String HEADER_MODIFIED_BY = "modifiedBy";
     public static final String HEADER_MODIFICATION_DATE = "modificationDate";
     public static final String HEADER_ELEMENT_UUID = "elementUuid";
+    public static final String HEADER_JOB_UUID = "jobUuid";
+    public static final String HEADER_JOB_STATUS = "status";
+    public static final String HEADER_RECEIVER = "receiver";
+
+    private final StreamBridge updatePublisher;
+
+    private final ElementUpdateOutboxRepository elementUpdateOutboxRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int outboxBatchSize;
 
-    @Autowired
-    private StreamBridge updatePublisher;
+    private final ExecutorService outboxPublisher = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("outbox-publisher-"));
+
+    // a publication is already queued, the notifications written meanwhile will be published by it
+    private final AtomicBoolean publicationPending = new AtomicBoolean();
+
+    public NotificationService(StreamBridge updatePublisher,
+                               ElementUpdateOutboxRepository elementUpdateOutboxRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${gridsuite.notifications.outbox-batch-size:1000}") int outboxBatchSize) {
+        this.updatePublisher = updatePublisher;
+        this.elementUpdateOutboxRepository = elementUpdateOutboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.outboxBatchSize = Math.max(outboxBatchSize, 1);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        outboxPublisher.shutdownNow();
+    }
 
     private void sendElementUpdateMessage(Message<String> message) {
         MESSAGE_OUTPUT_LOGGER.debug("Sending message : {}", message);
@@ -40,11 +90,66 @@ public class NotificationService {
     }
 
     public void emitElementUpdated(UUID elementUuid, String modifiedBy) {
-        sendElementUpdateMessage(MessageBuilder.withPayload("")
-                .setHeader(HEADER_ELEMENT_UUID, elementUuid)
-                .setHeader(HEADER_MODIFIED_BY, modifiedBy)
-                .setHeader(HEADER_MODIFICATION_DATE, Instant.now())
+        elementUpdateOutboxRepository.insert(elementUuid, modifiedBy, Instant.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestOutboxPublication();
+                }
+            });
+        } else {
+            requestOutboxPublication();
+        }
+    }
+
+    private void requestOutboxPublication() {
+        if (publicationPending.compareAndSet(false, true)) {
+            outboxPublisher.execute(() -> {
+                publicationPending.set(false);
+                publishOutbox();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${gridsuite.notifications.outbox-publication-delay:PT1M}")
+    public void publishOutboxPeriodically() {
+        requestOutboxPublication();
+    }
+
+    private void publishOutbox() {
+        try {
+            Integer nbPublished;
+            do {
+                nbPublished = transactionTemplate.execute(status -> publishOutboxBatch());
+            } while (nbPublished != null && nbPublished == outboxBatchSize);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not publish the element updates: {}", e.getMessage());
+        }
+    }
+
+    private int publishOutboxBatch() {
+        List<ElementUpdate> elementUpdates = elementUpdateOutboxRepository.lockOldest(outboxBatchSize);
+        if (elementUpdates.isEmpty()) {
+            return 0;
+        }
+        elementUpdates.forEach(elementUpdate -> sendElementUpdateMessage(MessageBuilder.withPayload("")
+                .setHeader(HEADER_ELEMENT_UUID, elementUpdate.elementUuid())
+                .setHeader(HEADER_MODIFIED_BY, elementUpdate.modifiedBy())
+                .setHeader(HEADER_MODIFICATION_DATE, elementUpdate.modificationDate())
                 .build()
-        );
+        ));
+        elementUpdateOutboxRepository.deleteAllById(elementUpdates.stream().map(ElementUpdate::id).toList());
+        return elementUpdates.size();
+    }
+
+    public void emitEvaluationJobFinished(UUID jobUuid, EvaluationJobStatus status, String receiver) {
+        Message<String> message = MessageBuilder.withPayload("")
+                .setHeader(HEADER_JOB_UUID, jobUuid)
+                .setHeader(HEADER_JOB_STATUS, status.name())
+                .setHeader(HEADER_RECEIVER, receiver)
+                .build();
+        MESSAGE_OUTPUT_LOGGER.debug("Sending message : {}", message);
+        updatePublisher.send("publishEvaluationJobResult-out-0", message);
     }
 }
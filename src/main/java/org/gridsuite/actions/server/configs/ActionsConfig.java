@@ -8,8 +8,16 @@ package org.gridsuite.actions.server.configs;
 
 import org.gridsuite.actions.ContingencyListEvaluator;
 import org.gridsuite.actions.FilterProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * @author Kevin Le Saulnier <kevin.le-saulnier at rte-france.com>
@@ -22,4 +30,43 @@ public class ActionsConfig {
     ) {
         return new ContingencyListEvaluator(filterProvider);
     }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ExecutorService evaluationExecutor(@Value("${gridsuite.evaluation.parallelism:2}") int parallelism) {
+        return Executors.newFixedThreadPool(Math.max(parallelism, 1), new CustomizableThreadFactory("evaluation-"));
+    }
+
+    /**
+     * With virtual threads (spring.threads.virtual.enabled), evaluations are no longer bounded by a shared pool:
+     * each request still uses at most gridsuite.evaluation.parallelism workers, but concurrent requests do not
+     * wait for each other's workers to be released.
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ExecutorService virtualEvaluationExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("evaluation-", 0).factory());
+    }
+
+    /**
+     * Executor shared by all the outbound HTTP clients, kept out of autowiring so that it is never mistaken for the
+     * evaluation executor.
+     */
+    @Bean(destroyMethod = "shutdown", autowireCandidate = false)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ExecutorService httpClientExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-client-", 0).factory());
+    }
+
+    /**
+     * With virtual threads, the outbound HTTP clients built from the RestTemplateBuilder use the JDK client,
+     * whose blocking calls release the carrier thread.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ClientHttpRequestFactoryBuilder<?> virtualThreadsClientHttpRequestFactoryBuilder() {
+        ExecutorService httpClientExecutor = httpClientExecutor();
+        return ClientHttpRequestFactoryBuilder.jdk()
+            .withHttpClientCustomizer(builder -> builder.executor(httpClientExecutor));
+    }
 }
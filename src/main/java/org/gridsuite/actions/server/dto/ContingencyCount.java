@@ -12,4 +12,10 @@ package org.gridsuite.actions.server.dto;
 public record ContingencyCount(
         int contingencies,
         int notFoundElements
-) { }
+) {
+    public static final ContingencyCount ZERO = new ContingencyCount(0, 0);
+
+    public ContingencyCount add(ContingencyCount other) {
+        return new ContingencyCount(contingencies + other.contingencies, notFoundElements + other.notFoundElements);
+    }
+}
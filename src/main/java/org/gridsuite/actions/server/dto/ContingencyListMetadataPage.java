@@ -0,0 +1,21 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server.dto;
+
+import org.gridsuite.actions.dto.ContingencyListMetadata;
+
+import java.util.List;
+
+/**
+ * A page of contingency lists metadata, ordered by modification date and id.
+ * The continuation token gives the next page, it is null on the last page.
+ */
+public record ContingencyListMetadataPage(
+        List<ContingencyListMetadata> contingencyLists,
+        String continuationToken
+) {
+}
@@ -0,0 +1,24 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * State of an asynchronous evaluation of contingency lists. Once succeeded, its result is made of the given number of
+ * pages of contingency infos, available until the expiration date.
+ */
+public record EvaluationJobInfos(
+        UUID id,
+        EvaluationJobStatus status,
+        Integer nbContingencies,
+        Integer nbPages,
+        String errorMessage,
+        Instant expirationDate
+) {
+}
@@ -0,0 +1,26 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server.dto;
+
+import java.util.List;
+
+/**
+ * Changes to the contingencies of an identifier contingency list, the contingencies being identified by their name.
+ * The added contingencies are appended to the list, the modified ones replace the contingencies of the same name
+ * in place, and the removed ones are given by their name.
+ */
+public record IdentifierContingencyListPatch(
+        List<IdentifierContingency> addedContingencies,
+        List<IdentifierContingency> modifiedContingencies,
+        List<String> removedContingencies
+) {
+    public IdentifierContingencyListPatch {
+        addedContingencies = addedContingencies != null ? addedContingencies : List.of();
+        modifiedContingencies = modifiedContingencies != null ? modifiedContingencies : List.of();
+        removedContingencies = removedContingencies != null ? removedContingencies : List.of();
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.gridsuite.actions.utils.ContingencyListType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Type and modification date of every contingency list, whatever the table holding it,
+ * so that a list can be found with a single lookup
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "contingency_list_registry")
+public class ContingencyListRegistryEntity {
+
+    @Id
+    @Column(name = "id")
+    private UUID id;
+
+    @Column(name = "type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ContingencyListType type;
+
+    @Column(name = "modification_date", columnDefinition = "timestamptz", nullable = false)
+    private Instant modificationDate;
+}
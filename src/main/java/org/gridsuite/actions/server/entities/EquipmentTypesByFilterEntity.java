@@ -42,12 +42,13 @@ public class EquipmentTypesByFilterEntity {
     private UUID filterId;
 
     @Column(name = "equipment_type")
-    @ElementCollection
+    @ElementCollection(fetch = FetchType.EAGER)
     @Enumerated(EnumType.STRING)
     @CollectionTable(name = "equipment_types_by_filter_equipment_types",
         joinColumns = @JoinColumn(name = "equipment_types_by_filter_id"),
         foreignKey = @ForeignKey(name = "equipment_types_by_filter_equipment_types_fk"))
-    @Fetch(FetchMode.JOIN)
+    // loaded along with the lists: a join would be ignored by the subselect loading the filters of the lists
+    @Fetch(FetchMode.SUBSELECT)
     @Schema(description = "List of associated equipment types")
     Set<IdentifiableType> equipmentTypes;
 
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.gridsuite.actions.server.dto.EvaluationJobInfos;
+import org.gridsuite.actions.server.dto.EvaluationJobStatus;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Asynchronous evaluation of contingency lists, its result pages being held by the evaluation_job_result table.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "evaluation_job")
+public class EvaluationJobEntity {
+
+    @Id
+    @Column(name = "id")
+    private UUID id;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private EvaluationJobStatus status;
+
+    @Column(name = "contingency_list_ids", nullable = false)
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    private List<UUID> contingencyListIds;
+
+    @Column(name = "network_uuid")
+    private UUID networkUuid;
+
+    @Column(name = "variant_id")
+    private String variantId;
+
+    // the broker notification of the end of the job is addressed to the receiver given at submission
+    @Column(name = "receiver")
+    private String receiver;
+
+    @Column(name = "nb_contingencies")
+    private Integer nbContingencies;
+
+    @Column(name = "nb_pages")
+    private Integer nbPages;
+
+    @Column(name = "error_message")
+    private String errorMessage;
+
+    @Column(name = "expiration_date", columnDefinition = "timestamptz", nullable = false)
+    private Instant expirationDate;
+
+    // refreshed while the job is pending or running on a server, see EvaluationJobService
+    @Column(name = "heartbeat_date", columnDefinition = "timestamptz")
+    private Instant heartbeatDate;
+
+    public EvaluationJobInfos toDto() {
+        return new EvaluationJobInfos(id, status, nbContingencies, nbPages, errorMessage, expirationDate);
+    }
+}
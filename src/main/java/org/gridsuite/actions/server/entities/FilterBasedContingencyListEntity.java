@@ -11,6 +11,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.gridsuite.actions.dto.contingency.FilterBasedContingencyList;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.springframework.util.CollectionUtils;
 
 import java.util.ArrayList;
@@ -33,11 +35,14 @@ public class FilterBasedContingencyListEntity extends AbstractContingencyEntity
     @CollectionTable(name = "filter_based_contingency_list_filter",
         joinColumns = @JoinColumn(name = "filter_based_contingency_list_id"),
         foreignKey = @ForeignKey(name = "filter_based_contingency_list_id_fk"))
+    // collections of the lists loaded together are fetched with a single query
+    @Fetch(FetchMode.SUBSELECT)
     private List<UUID> filtersIds;
 
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
     @JoinColumn(name = "filter_based_contingency_list_id", referencedColumnName = "id",
         foreignKey = @ForeignKey(name = "filter_based_contingency_list_selected_equipment_types_by_filter_fk"))
+    @Fetch(FetchMode.SUBSELECT)
     private List<EquipmentTypesByFilterEntity> selectedEquipmentTypesByFilter;
 
     public FilterBasedContingencyListEntity(FilterBasedContingencyList contingencyList) {
@@ -12,16 +12,12 @@ import com.powsybl.iidm.network.identifiers.NetworkElementIdentifier;
 import com.powsybl.iidm.network.identifiers.NetworkElementIdentifierContingencyList;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import org.gridsuite.actions.dto.contingency.IdBasedContingencyList;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
 import jakarta.persistence.*;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.*;
 
 /**
  * @author Etienne Homer <etienne.homer@rte-france.com>
@@ -32,34 +28,39 @@ import java.util.stream.Collectors;
 @Table(name = "id_based_contingency_list")
 public class IdBasedContingencyListEntity extends AbstractContingencyEntity {
 
-    @OneToMany(cascade = CascadeType.ALL)
+    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "id_based_contingency_list_id", nullable = false,
+        foreignKey = @ForeignKey(name = "identifier_list_id_based_contingency_list_fk"))
     @OrderColumn(name = "identifier_order")
     private List<IdentifierListEntity> identifiersListEntities;
 
-    public IdBasedContingencyListEntity(IdBasedContingencyList idBasedContingencyList) {
-        super();
-        init(idBasedContingencyList.getIdentifierContingencyList());
-    }
-
-    final void init(IdentifierContingencyList identifierContingencyList) {
+    /**
+     * Build the rows of the contingencies of a list, which are written in bulk apart from the list entity.
+     */
+    public static List<IdentifierListEntity> createIdentifierListEntities(IdentifierContingencyList identifierContingencyList) {
         if (identifierContingencyList.getIdentifiants().isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Contingency list " + identifierContingencyList.getName() + " empty");
         }
 
-        this.identifiersListEntities = new ArrayList<>();
-        identifierContingencyList.getIdentifiants().forEach(networkElementIdentifier -> {
-            List<NetworkElementIdentifier> identifierList = ((NetworkElementIdentifierContingencyList) networkElementIdentifier).getNetworkElementIdentifiers();
-            String contingencyName = networkElementIdentifier.getContingencyId().isPresent() ? networkElementIdentifier.getContingencyId().get() : "";
-            if (contingencyName.isEmpty() || identifierList == null || identifierList.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one contingency is partially defined for the contingency list " + identifierContingencyList.getName());
-            }
-            identifiersListEntities.add(new IdentifierListEntity(UUID.randomUUID(), contingencyName, identifierList.stream().map(identifier -> ((IdBasedNetworkElementIdentifier) identifier).getIdentifier()).collect(Collectors.toSet())));
-            }
-        );
+        List<IdentifierListEntity> identifierListEntities = new ArrayList<>();
+        identifierContingencyList.getIdentifiants().forEach(networkElementIdentifier ->
+            identifierListEntities.add(createIdentifierListEntity(identifierContingencyList.getName(), networkElementIdentifier)));
+        return identifierListEntities;
     }
 
-    public IdBasedContingencyListEntity update(IdBasedContingencyList idBasedContingencyList) {
-        init(idBasedContingencyList.getIdentifierContingencyList());
-        return this;
+    /**
+     * Build the row of one contingency, which must be named and hold at least one equipment.
+     */
+    public static IdentifierListEntity createIdentifierListEntity(String contingencyListName, NetworkElementIdentifier networkElementIdentifier) {
+        List<NetworkElementIdentifier> identifierList = ((NetworkElementIdentifierContingencyList) networkElementIdentifier).getNetworkElementIdentifiers();
+        return createIdentifierListEntity(contingencyListName, networkElementIdentifier.getContingencyId().orElse(""),
+            identifierList != null ? identifierList.stream().map(identifier -> ((IdBasedNetworkElementIdentifier) identifier).getIdentifier()).toList() : null);
+    }
+
+    public static IdentifierListEntity createIdentifierListEntity(String contingencyListName, String contingencyName, Collection<String> equipmentIds) {
+        if (contingencyName == null || contingencyName.isEmpty() || equipmentIds == null || equipmentIds.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one contingency is partially defined for the contingency list " + contingencyListName);
+        }
+        return new IdentifierListEntity(UUID.randomUUID(), contingencyName, new HashSet<>(equipmentIds));
     }
 }
@@ -9,6 +9,8 @@ package org.gridsuite.actions.server.entities;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import jakarta.persistence.*;
 import java.util.Set;
@@ -30,8 +32,8 @@ public class IdentifierListEntity {
     @Column(name = "name")
     private String name;
 
-    @Column(name = "equipmentIds")
-    @ElementCollection
-    @CollectionTable(foreignKey = @ForeignKey(name = "identifierListEntity_equipmentIds_fk1"), indexes = {@Index(name = "identifierListEntity_equipmentIds_idx1", columnList = "identifier_list_entity_id")})
+    // packed in an array column: one row per contingency instead of one row per equipment
+    @Column(name = "equipment_ids")
+    @JdbcTypeCode(SqlTypes.ARRAY)
     Set<String> equipmentIds;
 }
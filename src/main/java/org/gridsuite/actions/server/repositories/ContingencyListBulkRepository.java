@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server.repositories;
+
+import org.gridsuite.actions.server.entities.FilterBasedContingencyListEntity;
+import org.gridsuite.actions.utils.ContingencyListType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Write many contingency lists at once with JDBC batches: the list rows, their registry rows and the content of the
+ * filter based lists. The contingencies of the identifier lists are written by {@link IdentifierListBulkRepository}.
+ * Must be used within a transaction.
+ */
+@Repository
+public class ContingencyListBulkRepository {
+
+    private static final String INSERT_ID_BASED_QUERY = "INSERT INTO id_based_contingency_list (id, modification_date) VALUES (?, ?)";
+    private static final String INSERT_FILTER_BASED_QUERY = "INSERT INTO filter_based_contingency_list (id, modification_date) VALUES (?, ?)";
+    private static final String INSERT_FILTER_QUERY = "INSERT INTO filter_based_contingency_list_filter (filter_based_contingency_list_id, filter_ids) VALUES (?, ?)";
+    private static final String INSERT_EQUIPMENT_TYPES_BY_FILTER_QUERY = "INSERT INTO equipment_types_by_filter (id, filter_id, filter_based_contingency_list_id) VALUES (?, ?, ?)";
+    private static final String INSERT_EQUIPMENT_TYPE_QUERY = "INSERT INTO equipment_types_by_filter_equipment_types (equipment_types_by_filter_id, equipment_type) VALUES (?, ?)";
+    private static final String INSERT_REGISTRY_QUERY = "INSERT INTO contingency_list_registry (id, type, modification_date) VALUES (?, ?, ?)";
+
+    private static final String COPY_FILTERS_QUERY = "INSERT INTO filter_based_contingency_list_filter (filter_based_contingency_list_id, filter_ids) " +
+        "SELECT ?, filter_ids FROM filter_based_contingency_list_filter WHERE filter_based_contingency_list_id = ?";
+    private static final String SELECT_EQUIPMENT_TYPES_BY_FILTER_QUERY = "SELECT id, filter_id, filter_based_contingency_list_id FROM equipment_types_by_filter " +
+        "WHERE filter_based_contingency_list_id IN (:ids)";
+    // the equipment types are copied from the source row whose id is given along with the id of the copied row
+    private static final String COPY_EQUIPMENT_TYPES_QUERY = "INSERT INTO equipment_types_by_filter_equipment_types (equipment_types_by_filter_id, equipment_type) " +
+        "SELECT ?, equipment_type FROM equipment_types_by_filter_equipment_types WHERE equipment_types_by_filter_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private final int batchSize;
+
+    public ContingencyListBulkRepository(JdbcTemplate jdbcTemplate,
+                                         @Value("${gridsuite.bulk-write.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Insert the rows of lists of the given type, without their content, along with their registry rows.
+     */
+    public void insertContingencyLists(ContingencyListType type, Collection<UUID> ids, Instant modificationDate) {
+        OffsetDateTime timestamp = modificationDate.atOffset(ZoneOffset.UTC);
+        jdbcTemplate.batchUpdate(type == ContingencyListType.IDENTIFIERS ? INSERT_ID_BASED_QUERY : INSERT_FILTER_BASED_QUERY, ids, batchSize, (ps, id) -> {
+            ps.setObject(1, id);
+            ps.setObject(2, timestamp);
+        });
+        jdbcTemplate.batchUpdate(INSERT_REGISTRY_QUERY, ids, batchSize, (ps, id) -> {
+            ps.setObject(1, id);
+            ps.setString(2, type.name());
+            ps.setObject(3, timestamp);
+        });
+    }
+
+    /**
+     * Insert the filters and equipment types of filter based lists, already written.
+     */
+    public void insertFilterBasedContingencyListsContent(Collection<FilterBasedContingencyListEntity> entities) {
+        List<UUID[]> filters = new ArrayList<>();
+        List<UUID[]> equipmentTypesByFilters = new ArrayList<>();
+        List<Object[]> equipmentTypes = new ArrayList<>();
+        entities.forEach(entity -> {
+            Optional.ofNullable(entity.getFiltersIds()).orElse(List.of()).forEach(filterId -> filters.add(new UUID[] {entity.getId(), filterId}));
+            Optional.ofNullable(entity.getSelectedEquipmentTypesByFilter()).orElse(List.of()).forEach(equipmentTypesByFilter -> {
+                UUID equipmentTypesByFilterId = UUID.randomUUID();
+                equipmentTypesByFilters.add(new UUID[] {equipmentTypesByFilterId, equipmentTypesByFilter.getFilterId(), entity.getId()});
+                equipmentTypesByFilter.getEquipmentTypes().forEach(equipmentType -> equipmentTypes.add(new Object[] {equipmentTypesByFilterId, equipmentType.name()}));
+            });
+        });
+        jdbcTemplate.batchUpdate(INSERT_FILTER_QUERY, filters, batchSize, (ps, filter) -> {
+            ps.setObject(1, filter[0]);
+            ps.setObject(2, filter[1]);
+        });
+        jdbcTemplate.batchUpdate(INSERT_EQUIPMENT_TYPES_BY_FILTER_QUERY, equipmentTypesByFilters, batchSize, (ps, equipmentTypesByFilter) -> {
+            ps.setObject(1, equipmentTypesByFilter[0]);
+            ps.setObject(2, equipmentTypesByFilter[1]);
+            ps.setObject(3, equipmentTypesByFilter[2]);
+        });
+        jdbcTemplate.batchUpdate(INSERT_EQUIPMENT_TYPE_QUERY, equipmentTypes, batchSize, (ps, equipmentType) -> {
+            ps.setObject(1, equipmentType[0]);
+            ps.setString(2, (String) equipmentType[1]);
+        });
+    }
+
+    /**
+     * Copy the filters and equipment types of filter based lists to other ones, already written, within the database.
+     * The copies are given by target id, so that a list can be copied several times.
+     */
+    public void copyFilterBasedContingencyListsContent(Map<UUID, UUID> sourceIdsByTargetId) {
+        if (sourceIdsByTargetId.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(COPY_FILTERS_QUERY, sourceIdsByTargetId.entrySet(), batchSize, (ps, ids) -> {
+            ps.setObject(1, ids.getKey());
+            ps.setObject(2, ids.getValue());
+        });
+
+        // a filter may be selected several times in a list, each equipment types by filter row is copied with the id of its source
+        Map<UUID, List<UUID[]>> equipmentTypesByFiltersBySourceId = new HashMap<>();
+        namedParameterJdbcTemplate.query(SELECT_EQUIPMENT_TYPES_BY_FILTER_QUERY, Map.of("ids", new HashSet<>(sourceIdsByTargetId.values())),
+            (RowCallbackHandler) rs -> equipmentTypesByFiltersBySourceId.computeIfAbsent(rs.getObject(3, UUID.class), id -> new ArrayList<>())
+                .add(new UUID[] {rs.getObject(1, UUID.class), rs.getObject(2, UUID.class)}));
+        List<UUID[]> equipmentTypesByFilters = new ArrayList<>();
+        List<UUID[]> copiedIds = new ArrayList<>();
+        sourceIdsByTargetId.forEach((targetId, sourceId) ->
+            equipmentTypesByFiltersBySourceId.getOrDefault(sourceId, List.of()).forEach(source -> {
+                UUID equipmentTypesByFilterId = UUID.randomUUID();
+                equipmentTypesByFilters.add(new UUID[] {equipmentTypesByFilterId, source[1], targetId});
+                copiedIds.add(new UUID[] {equipmentTypesByFilterId, source[0]});
+            }));
+        jdbcTemplate.batchUpdate(INSERT_EQUIPMENT_TYPES_BY_FILTER_QUERY, equipmentTypesByFilters, batchSize, (ps, equipmentTypesByFilter) -> {
+            ps.setObject(1, equipmentTypesByFilter[0]);
+            ps.setObject(2, equipmentTypesByFilter[1]);
+            ps.setObject(3, equipmentTypesByFilter[2]);
+        });
+        jdbcTemplate.batchUpdate(COPY_EQUIPMENT_TYPES_QUERY, copiedIds, batchSize, (ps, ids) -> {
+            ps.setObject(1, ids[0]);
+            ps.setObject(2, ids[1]);
+        });
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server.repositories;
+
+import org.gridsuite.actions.dto.ContingencyListMetadata;
+import org.gridsuite.actions.server.entities.ContingencyListRegistryEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Repository
+public interface ContingencyListRegistryRepository extends JpaRepository<ContingencyListRegistryEntity, UUID> {
+
+    @Query("SELECT new org.gridsuite.actions.dto.ContingencyListMetadataImpl(r.id, r.type, r.modificationDate) FROM ContingencyListRegistryEntity r")
+    List<ContingencyListMetadata> findAllMetadata();
+
+    @Query("SELECT new org.gridsuite.actions.dto.ContingencyListMetadataImpl(r.id, r.type, r.modificationDate) FROM ContingencyListRegistryEntity r WHERE r.id IN :ids")
+    List<ContingencyListMetadata> findAllMetadataByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT r.id FROM ContingencyListRegistryEntity r WHERE r.id IN :ids")
+    Set<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    // keyset pagination, on the (modification_date, id) index
+    @Query("SELECT new org.gridsuite.actions.dto.ContingencyListMetadataImpl(r.id, r.type, r.modificationDate) FROM ContingencyListRegistryEntity r"
+        + " ORDER BY r.modificationDate, r.id")
+    List<ContingencyListMetadata> findFirstMetadata(Limit limit);
+
+    @Query("SELECT new org.gridsuite.actions.dto.ContingencyListMetadataImpl(r.id, r.type, r.modificationDate) FROM ContingencyListRegistryEntity r"
+        + " WHERE (r.modificationDate, r.id) > (:modificationDate, :id) ORDER BY r.modificationDate, r.id")
+    List<ContingencyListMetadata> findMetadataAfter(@Param("modificationDate") Instant modificationDate, @Param("id") UUID id, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM ContingencyListRegistryEntity r WHERE r.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server.repositories;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.powsybl.contingency.Contingency;
+import com.powsybl.iidm.network.VariantManagerConstants;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.*;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Contingencies of lists evaluated on network variants, stored as gzipped JSON arrays.
+ * <p>
+ * The version of a snapshot is incremented each time its network or one of the filters of its list is updated, and
+ * a snapshot is fresh as long as it has been evaluated at its current version and on the current version of its list.
+ * The snapshots are deleted along with their list.
+ */
+@Repository
+public class ContingencyListSnapshotRepository {
+
+    public record Key(UUID contingencyListId, UUID networkUuid, String variantId) {
+        public Key {
+            Objects.requireNonNull(contingencyListId);
+            Objects.requireNonNull(networkUuid);
+            variantId = toStoredVariantId(variantId);
+        }
+    }
+
+    /**
+     * A snapshot to evaluate again, along with its version and the version of its list at the time it was found.
+     */
+    public record StaleSnapshot(Key key, int version, OffsetDateTime listModificationDate) {
+    }
+
+    private static final String INSERT_QUERY = "INSERT INTO contingency_list_snapshot (contingency_list_id, network_uuid, variant_id) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String DELETE_QUERY = "DELETE FROM contingency_list_snapshot WHERE contingency_list_id = ? AND network_uuid = ? AND variant_id = ?";
+    private static final String INVALIDATE_NETWORK_QUERY = "UPDATE contingency_list_snapshot SET version = version + 1 WHERE network_uuid = ?";
+    private static final String INVALIDATE_ELEMENT_QUERY = "UPDATE contingency_list_snapshot SET version = version + 1 WHERE contingency_list_id = ? " +
+        "OR contingency_list_id IN (SELECT filter_based_contingency_list_id FROM filter_based_contingency_list_filter WHERE filter_ids = ?)";
+    private static final String SELECT_STALE_QUERY = "SELECT s.contingency_list_id, s.network_uuid, s.variant_id, s.version, r.modification_date FROM contingency_list_snapshot s " +
+        "JOIN contingency_list_registry r ON r.id = s.contingency_list_id " +
+        "WHERE (s.evaluated_version IS NULL OR s.evaluated_version <> s.version OR s.list_modification_date <> r.modification_date) ";
+    private static final String STALE_ORDER = "ORDER BY s.contingency_list_id, s.network_uuid, s.variant_id LIMIT ?";
+    private static final String SELECT_FIRST_STALE_QUERY = SELECT_STALE_QUERY + STALE_ORDER;
+    private static final String SELECT_NEXT_STALE_QUERY = SELECT_STALE_QUERY +
+        "AND (s.contingency_list_id, s.network_uuid, s.variant_id) > (?, ?, ?) " + STALE_ORDER;
+    // the version condition discards the evaluations made while the network or the filters were updated again
+    private static final String UPDATE_QUERY = "UPDATE contingency_list_snapshot SET content = ?, evaluated_version = ?, list_modification_date = ? " +
+        "WHERE contingency_list_id = ? AND network_uuid = ? AND variant_id = ? AND version = ?";
+    private static final String FRESH_CONDITION = "FROM contingency_list_snapshot s " +
+        "JOIN contingency_list_registry r ON r.id = s.contingency_list_id " +
+        "WHERE s.contingency_list_id IN (:ids) AND s.network_uuid = :networkUuid AND s.variant_id = :variantId " +
+        "AND s.evaluated_version = s.version AND s.list_modification_date = r.modification_date";
+    private static final String SELECT_FRESH_IDS_QUERY = "SELECT s.contingency_list_id " + FRESH_CONDITION;
+    private static final String SELECT_CONTENT_QUERY = "SELECT content FROM contingency_list_snapshot WHERE contingency_list_id = ? AND network_uuid = ? AND variant_id = ? " +
+        "AND content IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    public ContingencyListSnapshotRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.objectMapper = objectMapper;
+    }
+
+    public void insert(Key key) {
+        jdbcTemplate.update(INSERT_QUERY, key.contingencyListId(), key.networkUuid(), key.variantId());
+    }
+
+    public boolean delete(Key key) {
+        return jdbcTemplate.update(DELETE_QUERY, key.contingencyListId(), key.networkUuid(), key.variantId()) > 0;
+    }
+
+    public int invalidateNetwork(UUID networkUuid) {
+        return jdbcTemplate.update(INVALIDATE_NETWORK_QUERY, networkUuid);
+    }
+
+    /**
+     * Invalidate the snapshots of a list, or of the lists relying on a filter.
+     */
+    public int invalidateElement(UUID elementUuid) {
+        return jdbcTemplate.update(INVALIDATE_ELEMENT_QUERY, elementUuid, elementUuid);
+    }
+
+    /**
+     * Get a page of the stale snapshots, in key order, starting after the given key or from the first one if it is null.
+     */
+    public List<StaleSnapshot> findStale(Key after, int limit) {
+        RowMapper<StaleSnapshot> rowMapper = (rs, rowNum) -> new StaleSnapshot(
+            new Key(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class), rs.getString(3)),
+            rs.getInt(4),
+            rs.getObject(5, OffsetDateTime.class));
+        return after == null
+            ? jdbcTemplate.query(SELECT_FIRST_STALE_QUERY, rowMapper, limit)
+            : jdbcTemplate.query(SELECT_NEXT_STALE_QUERY, rowMapper, after.contingencyListId(), after.networkUuid(), after.variantId(), limit);
+    }
+
+    /**
+     * Store the contingencies evaluated for a stale snapshot, unless it has been invalidated meanwhile.
+     */
+    public boolean update(StaleSnapshot snapshot, List<Contingency> contingencies) {
+        Key key = snapshot.key();
+        return jdbcTemplate.update(UPDATE_QUERY, compress(contingencies), snapshot.version(), snapshot.listModificationDate(),
+            key.contingencyListId(), key.networkUuid(), key.variantId(), snapshot.version()) > 0;
+    }
+
+    /**
+     * Get the ids of the lists among the given ones whose snapshot on a network variant is fresh.
+     */
+    public Set<UUID> findFreshIds(Collection<UUID> contingencyListIds, UUID networkUuid, String variantId) {
+        if (contingencyListIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(SELECT_FRESH_IDS_QUERY,
+            Map.of("ids", contingencyListIds, "networkUuid", networkUuid, "variantId", toStoredVariantId(variantId)), UUID.class));
+    }
+
+    /**
+     * Hand the contingencies of a snapshot over to the consumer one by one, as they are decompressed.
+     */
+    public void forEachContingency(Key key, Consumer<Contingency> consumer) {
+        jdbcTemplate.query(SELECT_CONTENT_QUERY, (RowCallbackHandler) rs -> readContingencies(rs.getBinaryStream(1), consumer),
+            key.contingencyListId(), key.networkUuid(), key.variantId());
+    }
+
+    private static String toStoredVariantId(String variantId) {
+        return variantId != null ? variantId : VariantManagerConstants.INITIAL_VARIANT_ID;
+    }
+
+    private byte[] compress(List<Contingency> contingencies) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (OutputStream outputStream = new GZIPOutputStream(content)) {
+            objectMapper.writeValue(outputStream, contingencies);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return content.toByteArray();
+    }
+
+    private void readContingencies(InputStream content, Consumer<Contingency> consumer) {
+        try (InputStream inputStream = new GZIPInputStream(content);
+             MappingIterator<Contingency> contingencies = objectMapper.readerFor(Contingency.class).readValues(inputStream)) {
+            contingencies.forEachRemaining(consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
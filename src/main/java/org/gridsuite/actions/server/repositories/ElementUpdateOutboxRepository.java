@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outbox of the element update notifications, written in the transaction of the update they notify.
+ */
+@Repository
+public class ElementUpdateOutboxRepository {
+
+    public record ElementUpdate(long id, UUID elementUuid, String modifiedBy, Instant modificationDate) {
+    }
+
+    private static final String INSERT_QUERY = "INSERT INTO element_update_outbox (element_uuid, modified_by, modification_date) VALUES (?, ?, ?)";
+    // the notifications locked by another publisher are left to it
+    private static final String SELECT_QUERY = "SELECT id, element_uuid, modified_by, modification_date FROM element_update_outbox " +
+        "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String DELETE_QUERY = "DELETE FROM element_update_outbox WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ElementUpdateOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(UUID elementUuid, String modifiedBy, Instant modificationDate) {
+        jdbcTemplate.update(INSERT_QUERY, elementUuid, modifiedBy, modificationDate.atOffset(ZoneOffset.UTC));
+    }
+
+    /**
+     * Lock the oldest notifications, up to the given number, until the end of the current transaction.
+     */
+    public List<ElementUpdate> lockOldest(int limit) {
+        return jdbcTemplate.query(SELECT_QUERY, (rs, rowNum) -> new ElementUpdate(
+            rs.getLong(1),
+            rs.getObject(2, UUID.class),
+            rs.getString(3),
+            rs.getObject(4, OffsetDateTime.class).toInstant()), limit);
+    }
+
+    public void deleteAllById(Collection<Long> ids) {
+        jdbcTemplate.batchUpdate(DELETE_QUERY, ids, ids.size(), (ps, id) -> ps.setLong(1, id));
+    }
+}
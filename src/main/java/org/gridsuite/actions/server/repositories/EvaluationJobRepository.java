@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server.repositories;
+
+import org.gridsuite.actions.server.entities.EvaluationJobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EvaluationJobRepository extends JpaRepository<EvaluationJobEntity, UUID> {
+
+    String UNFINISHED_STATUSES = "org.gridsuite.actions.server.dto.EvaluationJobStatus.PENDING, org.gridsuite.actions.server.dto.EvaluationJobStatus.RUNNING";
+
+    // the result pages of the jobs are deleted along with them by the database
+    @Modifying
+    @Query(value = "DELETE FROM evaluation_job WHERE expiration_date < :date", nativeQuery = true)
+    int deleteExpired(Instant date);
+
+    @Modifying
+    @Query("UPDATE EvaluationJobEntity j SET j.heartbeatDate = :date WHERE j.id IN :ids")
+    int updateHeartbeatDate(Collection<UUID> ids, Instant date);
+
+    // the jobs whose server has stopped refreshing them
+    @Query("SELECT j.id FROM EvaluationJobEntity j WHERE j.status IN (" + UNFINISHED_STATUSES + ") AND (j.heartbeatDate IS NULL OR j.heartbeatDate < :date)")
+    List<UUID> findOrphanedIds(Instant date);
+
+    // conditional, in case the job has been refreshed or has ended meanwhile
+    @Modifying
+    @Query("UPDATE EvaluationJobEntity j SET j.status = org.gridsuite.actions.server.dto.EvaluationJobStatus.FAILED, j.errorMessage = :errorMessage, "
+        + "j.expirationDate = :expirationDate WHERE j.id = :id AND j.status IN (" + UNFINISHED_STATUSES + ") AND (j.heartbeatDate IS NULL OR j.heartbeatDate < :date)")
+    int failOrphaned(UUID id, String errorMessage, Instant expirationDate, Instant date);
+}
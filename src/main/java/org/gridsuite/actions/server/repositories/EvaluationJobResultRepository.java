@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Result pages of the evaluation jobs, each page being an opaque compressed content. They are written one by one as
+ * the jobs fill them, and deleted along with their job.
+ */
+@Repository
+public class EvaluationJobResultRepository {
+
+    private static final String INSERT_QUERY = "INSERT INTO evaluation_job_result (job_id, page_number, content) VALUES (?, ?, ?)";
+    private static final String SELECT_QUERY = "SELECT content FROM evaluation_job_result WHERE job_id = ? AND page_number = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EvaluationJobResultRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(UUID jobId, int pageNumber, byte[] content) {
+        jdbcTemplate.update(INSERT_QUERY, jobId, pageNumber, content);
+    }
+
+    public Optional<byte[]> find(UUID jobId, int pageNumber) {
+        return jdbcTemplate.query(SELECT_QUERY, (rs, rowNum) -> rs.getBytes(1), jobId, pageNumber).stream().findFirst();
+    }
+}
@@ -8,8 +8,12 @@ package org.gridsuite.actions.server.repositories;
 
 import org.gridsuite.actions.server.entities.FilterBasedContingencyListEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.UUID;
 
 /**
@@ -18,5 +22,21 @@ import java.util.UUID;
 
 @Repository
 public interface FilterBasedContingencyListRepository extends JpaRepository<FilterBasedContingencyListEntity, UUID> {
-    Integer deleteFilterBasedContingencyListEntityById(UUID id);
+    // delete lists along with their content with set-based statements, the content first
+    @Modifying
+    @Query(value = "DELETE FROM equipment_types_by_filter_equipment_types WHERE equipment_types_by_filter_id IN " +
+        "(SELECT id FROM equipment_types_by_filter WHERE filter_based_contingency_list_id IN (:ids))", nativeQuery = true)
+    int deleteEquipmentTypesByContingencyListIds(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM equipment_types_by_filter WHERE filter_based_contingency_list_id IN (:ids)", nativeQuery = true)
+    int deleteEquipmentTypesByFilterByContingencyListIds(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM filter_based_contingency_list_filter WHERE filter_based_contingency_list_id IN (:ids)", nativeQuery = true)
+    int deleteFiltersByContingencyListIds(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM filter_based_contingency_list WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
 }
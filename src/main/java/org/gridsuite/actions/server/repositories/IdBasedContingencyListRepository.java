@@ -7,9 +7,16 @@
 package org.gridsuite.actions.server.repositories;
 
 import org.gridsuite.actions.server.entities.IdBasedContingencyListEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -17,5 +24,19 @@ import java.util.UUID;
  */
 @Repository
 public interface IdBasedContingencyListRepository extends JpaRepository<IdBasedContingencyListEntity, UUID> {
-    Integer deleteIdBasedContingencyListEntityById(UUID id);
+    // load the lists with their contingencies in a single query
+    @EntityGraph(attributePaths = {"identifiersListEntities"})
+    Optional<IdBasedContingencyListEntity> findWithIdentifiersById(UUID id);
+
+    @EntityGraph(attributePaths = {"identifiersListEntities"})
+    List<IdBasedContingencyListEntity> findAllWithIdentifiersByIdIn(Collection<UUID> ids);
+
+    // delete lists along with their contingencies with set-based statements, the contingencies first
+    @Modifying
+    @Query(value = "DELETE FROM identifier_list WHERE id_based_contingency_list_id IN (:ids)", nativeQuery = true)
+    int deleteIdentifierListsByContingencyListIds(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM id_based_contingency_list WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
 }
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server.repositories;
+
+import org.gridsuite.actions.server.entities.IdentifierListEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Write the contingencies of the id based lists with JDBC batches, large lists holding up to hundreds of thousands
+ * of contingencies would otherwise be written with one statement per contingency.
+ * Must be used within the transaction writing the list entity, once it is flushed.
+ */
+@Repository
+public class IdentifierListBulkRepository {
+
+    private static final String INSERT_QUERY = "INSERT INTO identifier_list (id, id_based_contingency_list_id, identifier_order, name, equipment_ids) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_QUERY = "UPDATE identifier_list SET identifier_order = ?, name = ?, equipment_ids = ? WHERE id = ?";
+    private static final String DELETE_QUERY = "DELETE FROM identifier_list WHERE id_based_contingency_list_id = ?";
+    private static final String DELETE_BY_ID_QUERY = "DELETE FROM identifier_list WHERE id = ?";
+    private static final String SELECT_COPIED_QUERY = "SELECT identifier_order, name, equipment_ids FROM identifier_list WHERE id_based_contingency_list_id = ?";
+    private static final String SELECT_QUERY = "SELECT id, name, equipment_ids FROM identifier_list WHERE id_based_contingency_list_id = ? ORDER BY identifier_order";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int batchSize;
+
+    public IdentifierListBulkRepository(JdbcTemplate jdbcTemplate,
+                                        @Value("${gridsuite.bulk-write.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Read the contingencies of a list, in their order.
+     */
+    public List<IdentifierListEntity> findAll(UUID contingencyListId) {
+        return jdbcTemplate.query(SELECT_QUERY, (rs, rowNum) -> new IdentifierListEntity(
+            rs.getObject(1, UUID.class),
+            rs.getString(2),
+            Arrays.stream((Object[]) rs.getArray(3).getArray()).map(String.class::cast).collect(Collectors.toCollection(LinkedHashSet::new))
+        ), contingencyListId);
+    }
+
+    public void insertAll(UUID contingencyListId, List<IdentifierListEntity> identifierLists) {
+        insertAll(Map.of(contingencyListId, identifierLists));
+    }
+
+    /**
+     * Insert the contingencies of several lists in the same batches.
+     */
+    public void insertAll(Map<UUID, List<IdentifierListEntity>> identifierListsByContingencyListId) {
+        List<Object[]> rows = new ArrayList<>();
+        identifierListsByContingencyListId.forEach((contingencyListId, identifierLists) ->
+            IntStream.range(0, identifierLists.size()).forEach(order -> rows.add(new Object[] {contingencyListId, order, identifierLists.get(order)})));
+        jdbcTemplate.batchUpdate(INSERT_QUERY, rows, batchSize, (ps, row) ->
+            setInsertParameters(ps, (UUID) row[0], (Integer) row[1], (IdentifierListEntity) row[2]));
+    }
+
+    /**
+     * Insert contingencies at the given positions of a list.
+     */
+    public void insertAll(UUID contingencyListId, Map<Integer, IdentifierListEntity> identifierListsByOrder) {
+        jdbcTemplate.batchUpdate(INSERT_QUERY, identifierListsByOrder.entrySet(), batchSize, (ps, entry) ->
+            setInsertParameters(ps, contingencyListId, entry.getKey(), entry.getValue()));
+    }
+
+    private static void setInsertParameters(PreparedStatement ps, UUID contingencyListId, int order, IdentifierListEntity identifierList) throws SQLException {
+        ps.setObject(1, identifierList.getId());
+        ps.setObject(2, contingencyListId);
+        ps.setInt(3, order);
+        ps.setString(4, identifierList.getName());
+        ps.setArray(5, ps.getConnection().createArrayOf("varchar", identifierList.getEquipmentIds().toArray()));
+    }
+
+    /**
+     * Insert the contingencies of a list as they come, one batch at a time, and return their number.
+     */
+    public int insertAll(UUID contingencyListId, Iterator<IdentifierListEntity> identifierLists) {
+        int order = 0;
+        Map<Integer, IdentifierListEntity> batch = new LinkedHashMap<>();
+        while (identifierLists.hasNext()) {
+            batch.put(order++, identifierLists.next());
+            if (batch.size() == batchSize || !identifierLists.hasNext()) {
+                insertAll(contingencyListId, batch);
+                batch.clear();
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Update existing contingencies, identified by their id, and move them to the given positions of their list.
+     */
+    public void updateAll(Map<Integer, IdentifierListEntity> identifierListsByOrder) {
+        jdbcTemplate.batchUpdate(UPDATE_QUERY, identifierListsByOrder.entrySet(), batchSize, (ps, entry) -> {
+            IdentifierListEntity identifierList = entry.getValue();
+            ps.setInt(1, entry.getKey());
+            ps.setString(2, identifierList.getName());
+            ps.setArray(3, ps.getConnection().createArrayOf("varchar", identifierList.getEquipmentIds().toArray()));
+            ps.setObject(4, identifierList.getId());
+        });
+    }
+
+    public void deleteAllById(Collection<UUID> ids) {
+        jdbcTemplate.batchUpdate(DELETE_BY_ID_QUERY, ids, batchSize, (ps, id) -> ps.setObject(1, id));
+    }
+
+    /**
+     * Copy the contingencies of a list to another one, and return their number.
+     */
+    public int copyAll(UUID sourceContingencyListId, UUID targetContingencyListId) {
+        return copyAll(sourceContingencyListId, List.of(targetContingencyListId));
+    }
+
+    /**
+     * Copy the contingencies of several lists to other ones.
+     * The copies are given by target id, so that a list can be copied several times.
+     */
+    public void copyAll(Map<UUID, UUID> sourceContingencyListIdsByTargetId) {
+        sourceContingencyListIdsByTargetId.entrySet().stream()
+            .collect(Collectors.groupingBy(Map.Entry::getValue, LinkedHashMap::new, Collectors.mapping(Map.Entry::getKey, Collectors.toList())))
+            .forEach(this::copyAll);
+    }
+
+    /**
+     * Copy the contingencies of a list to several other ones, one batch of source rows at a time, and return their
+     * number. The ids of the copies are generated here rather than by the database.
+     */
+    private int copyAll(UUID sourceContingencyListId, List<UUID> targetContingencyListIds) {
+        List<Object[]> rows = new ArrayList<>();
+        int[] nbRows = {0};
+        jdbcTemplate.query(SELECT_COPIED_QUERY, (RowCallbackHandler) rs -> {
+            rows.add(new Object[] {rs.getInt(1), rs.getString(2), rs.getArray(3).getArray()});
+            nbRows[0]++;
+            if (rows.size() == batchSize) {
+                insertCopies(targetContingencyListIds, rows);
+                rows.clear();
+            }
+        }, sourceContingencyListId);
+        insertCopies(targetContingencyListIds, rows);
+        return nbRows[0];
+    }
+
+    private void insertCopies(List<UUID> targetContingencyListIds, List<Object[]> rows) {
+        List<Object[]> copies = new ArrayList<>();
+        targetContingencyListIds.forEach(targetContingencyListId -> rows.forEach(row -> copies.add(new Object[] {targetContingencyListId, row})));
+        jdbcTemplate.batchUpdate(INSERT_QUERY, copies, batchSize, (ps, copy) -> {
+            Object[] row = (Object[]) copy[1];
+            ps.setObject(1, UUID.randomUUID());
+            ps.setObject(2, copy[0]);
+            ps.setInt(3, (Integer) row[0]);
+            ps.setString(4, (String) row[1]);
+            ps.setArray(5, ps.getConnection().createArrayOf("varchar", (Object[]) row[2]));
+        });
+    }
+
+    public int deleteAll(UUID contingencyListId) {
+        return jdbcTemplate.update(DELETE_QUERY, contingencyListId);
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.powsybl.iidm.network.VariantManagerConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.gridsuite.actions.dto.evaluation.ContingencyInfos;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the contingency list evaluations, for a given version of a list on a given network variant.
+ * <p>
+ * The filter servers do not expose any version of the filters, so the evaluations are rather evicted when one of the
+ * filters they rely on is updated. They are also evicted when their list or their network is updated, when the cache
+ * is full (its weight being the number of cached contingencies) or when they are too old.
+ * Hit, miss and eviction metrics are published under the {@value #CACHE_NAME} cache name.
+ */
+@Service
+public class ContingencyListEvaluationCache {
+
+    public static final String CACHE_NAME = "contingencyListEvaluations";
+
+    public record Key(UUID contingencyListId, Instant modificationDate, UUID networkUuid, String variantId) {
+        public Key {
+            Objects.requireNonNull(contingencyListId);
+            Objects.requireNonNull(networkUuid);
+            variantId = variantId != null ? variantId : VariantManagerConstants.INITIAL_VARIANT_ID;
+        }
+    }
+
+    private record Evaluation(List<ContingencyInfos> contingencyInfos, Set<UUID> filterIds) { }
+
+    private final Cache<Key, Evaluation> cache;
+
+    // incremented on each invalidation, to detect the ones happening while an evaluation is computed
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    public ContingencyListEvaluationCache(MeterRegistry meterRegistry,
+                                          @Value("${gridsuite.evaluation-cache.max-contingencies:100000}") long maxContingencies,
+                                          @Value("${gridsuite.evaluation-cache.expire-after-write:PT30M}") Duration expireAfterWrite) {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxContingencies)
+                .weigher((Key key, Evaluation evaluation) -> evaluation.contingencyInfos().size() + 1)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<List<ContingencyInfos>> get(Key key) {
+        return Optional.ofNullable(cache.getIfPresent(key)).map(Evaluation::contingencyInfos);
+    }
+
+    /**
+     * Compute the evaluation and cache it, unless an invalidation happened meanwhile.
+     */
+    public List<ContingencyInfos> evaluate(Key key, Collection<UUID> filterIds, Supplier<List<ContingencyInfos>> evaluation) {
+        long invalidationCountBeforeEvaluation = invalidationCount.get();
+        List<ContingencyInfos> contingencyInfos = List.copyOf(evaluation.get());
+        cache.put(key, new Evaluation(contingencyInfos, Set.copyOf(filterIds)));
+        if (invalidationCount.get() != invalidationCountBeforeEvaluation) {
+            // the evaluation may rely on outdated data
+            cache.invalidate(key);
+        }
+        return contingencyInfos;
+    }
+
+    /**
+     * Evict the evaluations of a contingency list, or relying on a filter.
+     */
+    public void invalidateElement(UUID elementUuid) {
+        invalidationCount.incrementAndGet();
+        cache.asMap().entrySet().removeIf(entry -> entry.getKey().contingencyListId().equals(elementUuid)
+                || entry.getValue().filterIds().contains(elementUuid));
+    }
+
+    public void invalidateNetwork(UUID networkUuid) {
+        invalidationCount.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.networkUuid().equals(networkUuid));
+    }
+
+    public void invalidateAll() {
+        invalidationCount.incrementAndGet();
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.gridsuite.actions.server.dto.IdentifierContingency;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.ZipException;
+
+/**
+ * Incremental reader of the contingencies of an uploaded identifier contingency list, one contingency per line.
+ * A CSV line holds the contingency name followed by its equipment ids, a NDJSON line holds an {@link IdentifierContingency}.
+ * Blank lines are skipped, and only the current line is held in memory. An upload that turns out to be truncated or
+ * corrupted while it is read, such as a broken gzip payload, is rejected as a bad request.
+ */
+public final class IdentifierContingencyReader implements Iterator<IdentifierContingency> {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final String CSV_SEPARATOR = ",";
+
+    private final BufferedReader reader;
+
+    private final ObjectMapper objectMapper;
+
+    private IdentifierContingency next;
+
+    private int lineNumber;
+
+    private IdentifierContingencyReader(InputStream inputStream, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+    }
+
+    public static IdentifierContingencyReader csv(InputStream inputStream) {
+        return new IdentifierContingencyReader(inputStream, null);
+    }
+
+    public static IdentifierContingencyReader ndjson(InputStream inputStream, ObjectMapper objectMapper) {
+        return new IdentifierContingencyReader(inputStream, objectMapper);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readContingency();
+        }
+        return next != null;
+    }
+
+    @Override
+    public IdentifierContingency next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        IdentifierContingency contingency = next;
+        next = null;
+        return contingency;
+    }
+
+    private IdentifierContingency readContingency() {
+        try {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            return objectMapper != null ? parseJson(line) : parseCsv(line);
+        } catch (ZipException | EOFException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid upload after line " + lineNumber + ": " + e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private IdentifierContingency parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, IdentifierContingency.class);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid contingency at line " + lineNumber + ": " + e.getOriginalMessage());
+        }
+    }
+
+    private static IdentifierContingency parseCsv(String line) {
+        String[] fields = line.split(CSV_SEPARATOR);
+        return new IdentifierContingency(fields[0].strip(), Arrays.stream(fields, 1, fields.length)
+            .map(String::strip)
+            .filter(equipmentId -> !equipmentId.isEmpty())
+            .toList());
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server.service;
+
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.VariantManagerConstants;
+import com.powsybl.network.store.client.NetworkStoreService;
+import com.powsybl.network.store.client.PreloadingStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of the networks loaded from the network store.
+ * <p>
+ * Network store networks are neither thread safe nor able to hold a working variant per thread, so a cached network
+ * is leased to one caller at a time: the working variant is switched when the network is leased, and the network
+ * goes back to the cache once the caller is done with it. Concurrent callers on the same network get distinct
+ * instances. The least recently released networks are evicted when the cache is full or when they have been idle
+ * for too long, and all the instances of a network are dropped when it is invalidated.
+ */
+@Service
+public class NetworkCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NetworkCache.class);
+
+    private final NetworkStoreService networkStoreService;
+
+    private final int maxSize;
+
+    private final Duration expireAfterIdle;
+
+    // idle networks, least recently released first
+    private final Deque<CachedNetwork> idleNetworks = new ArrayDeque<>();
+
+    // networks currently leased, and those invalidated while leased which must not go back in the cache
+    private final Map<Network, UUID> leasedNetworks = new IdentityHashMap<>();
+    private final Set<Network> invalidatedNetworks = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    // incremented on each invalidation, to detect the ones happening while a network is loaded
+    private long invalidationCount;
+
+    private record CachedNetwork(UUID networkUuid, PreloadingStrategy preloadingStrategy, Network network, Instant releaseDate) { }
+
+    public NetworkCache(NetworkStoreService networkStoreService,
+                        @Value("${gridsuite.network-cache.max-size:4}") int maxSize,
+                        @Value("${gridsuite.network-cache.expire-after-idle:PT10M}") Duration expireAfterIdle) {
+        this.networkStoreService = networkStoreService;
+        this.maxSize = maxSize;
+        this.expireAfterIdle = expireAfterIdle;
+    }
+
+    /**
+     * Run an action on the network, switched to the given variant (or to the initial variant if null).
+     * The network is reserved to the action while it runs.
+     * <p>
+     * A network loaded with {@link PreloadingStrategy#NONE} is only reused by the actions asking for this strategy,
+     * whereas a preloaded network can be reused by any action.
+     */
+    public <T> T withNetwork(UUID networkUuid, String variantId, PreloadingStrategy preloadingStrategy, Function<Network, T> action) {
+        Objects.requireNonNull(networkUuid);
+        Objects.requireNonNull(preloadingStrategy);
+        CachedNetwork cachedNetwork = acquire(networkUuid, preloadingStrategy);
+        try {
+            cachedNetwork.network().getVariantManager().setWorkingVariant(variantId != null ? variantId : VariantManagerConstants.INITIAL_VARIANT_ID);
+            return action.apply(cachedNetwork.network());
+        } finally {
+            release(cachedNetwork);
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized void invalidate(UUID networkUuid) {
+        invalidationCount++;
+        leasedNetworks.forEach((network, uuid) -> {
+            if (uuid.equals(networkUuid)) {
+                invalidatedNetworks.add(network);
+            }
+        });
+        if (idleNetworks.removeIf(cachedNetwork -> cachedNetwork.networkUuid().equals(networkUuid))) {
+            LOGGER.debug("Network {} evicted from cache", networkUuid);
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        invalidationCount++;
+        invalidatedNetworks.addAll(leasedNetworks.keySet());
+        idleNetworks.clear();
+    }
+
+    private CachedNetwork acquire(UUID networkUuid, PreloadingStrategy preloadingStrategy) {
+        CachedNetwork cachedNetwork;
+        long invalidationCountBeforeLoad;
+        synchronized (this) {
+            evictExpiredNetworks();
+            cachedNetwork = pollIdleNetwork(networkUuid, preloadingStrategy);
+            invalidationCountBeforeLoad = invalidationCount;
+        }
+        if (cachedNetwork == null) {
+            // load outside of the lock, other networks can be leased meanwhile
+            cachedNetwork = new CachedNetwork(networkUuid, preloadingStrategy, loadNetwork(networkUuid, preloadingStrategy), null);
+        }
+        synchronized (this) {
+            leasedNetworks.put(cachedNetwork.network(), networkUuid);
+            if (invalidationCount != invalidationCountBeforeLoad) {
+                // the network may have been loaded before a modification: use it but do not cache it
+                invalidatedNetworks.add(cachedNetwork.network());
+            }
+        }
+        return cachedNetwork;
+    }
+
+    private Network loadNetwork(UUID networkUuid, PreloadingStrategy preloadingStrategy) {
+        Network network = networkStoreService.getNetwork(networkUuid, preloadingStrategy);
+        if (network == null) {
+            throw new PowsyblException("Network '" + networkUuid + "' not found");
+        }
+        return network;
+    }
+
+    private synchronized void release(CachedNetwork cachedNetwork) {
+        leasedNetworks.remove(cachedNetwork.network());
+        if (invalidatedNetworks.remove(cachedNetwork.network()) || maxSize <= 0) {
+            return;
+        }
+        idleNetworks.addLast(new CachedNetwork(cachedNetwork.networkUuid(), cachedNetwork.preloadingStrategy(), cachedNetwork.network(), Instant.now()));
+        while (idleNetworks.size() > maxSize) {
+            idleNetworks.removeFirst();
+        }
+    }
+
+    private CachedNetwork pollIdleNetwork(UUID networkUuid, PreloadingStrategy preloadingStrategy) {
+        // most recently released first, as its collections are the most likely to be loaded
+        Iterator<CachedNetwork> iterator = idleNetworks.descendingIterator();
+        while (iterator.hasNext()) {
+            CachedNetwork cachedNetwork = iterator.next();
+            if (cachedNetwork.networkUuid().equals(networkUuid)
+                    && (preloadingStrategy == PreloadingStrategy.NONE || cachedNetwork.preloadingStrategy() != PreloadingStrategy.NONE)) {
+                iterator.remove();
+                return cachedNetwork;
+            }
+        }
+        return null;
+    }
+
+    private void evictExpiredNetworks() {
+        Instant expirationDate = Instant.now().minus(expireAfterIdle);
+        while (!idleNetworks.isEmpty() && idleNetworks.getFirst().releaseDate().isBefore(expirationDate)) {
+            idleNetworks.removeFirst();
+        }
+    }
+}
@@ -9,12 +9,14 @@ package org.gridsuite.actions.server;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.MappingBuilder;
 import com.github.tomakehurst.wiremock.client.WireMock;
+import com.powsybl.commons.PowsyblException;
 import com.powsybl.contingency.*;
 import com.powsybl.contingency.list.IdentifierContingencyList;
 import com.powsybl.contingency.json.ContingencyJsonModule;
@@ -39,9 +41,23 @@ import org.gridsuite.actions.dto.contingency.IdBasedContingencyList;
 import org.gridsuite.actions.dto.evaluation.ContingencyIdsByGroup;
 import org.gridsuite.actions.dto.evaluation.ContingencyInfos;
 import org.gridsuite.actions.server.dto.ContingencyCount;
+import org.gridsuite.actions.server.dto.EvaluationJobInfos;
+import org.gridsuite.actions.server.dto.EvaluationJobStatus;
+import org.gridsuite.actions.server.dto.IdentifierContingency;
+import org.gridsuite.actions.server.dto.IdentifierContingencyListPatch;
+import org.gridsuite.actions.server.entities.ContingencyListRegistryEntity;
+import org.gridsuite.actions.server.entities.EvaluationJobEntity;
+import org.gridsuite.actions.server.repositories.ContingencyListRegistryRepository;
+import org.gridsuite.actions.server.repositories.ContingencyListSnapshotRepository;
+import org.gridsuite.actions.server.repositories.EvaluationJobRepository;
+import org.gridsuite.actions.server.repositories.FilterBasedContingencyListRepository;
 import org.gridsuite.actions.server.repositories.IdBasedContingencyListRepository;
+import org.gridsuite.actions.server.service.ContingencyListEvaluationCache;
 import org.gridsuite.actions.server.service.FilterService;
+import org.gridsuite.actions.server.service.NetworkCache;
 import org.gridsuite.actions.server.utils.MatcherJson;
+import org.gridsuite.actions.server.utils.SqlStatementCounter;
+import org.gridsuite.actions.utils.ContingencyListType;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -50,27 +66,54 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.binder.test.InputDestination;
 import org.springframework.cloud.stream.binder.test.OutputDestination;
 import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.test.web.servlet.MockMvc;
-
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static com.powsybl.network.store.model.NetworkStoreApi.VERSION;
 import static org.gridsuite.filter.utils.EquipmentType.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -95,21 +138,59 @@ class ContingencyListControllerTest {
     public static final String CONTINGENCY_2 = "contingency-2";
 
     private final String elementUpdateDestination = "element.update";
+    private final String networkUpdateDestination = "network.update";
+    private final String evaluationResultDestination = "contingency.evaluation.result";
 
     private Network network;
 
     @Autowired
     private IdBasedContingencyListRepository idBasedContingencyListRepository;
 
+    @Autowired
+    private FilterBasedContingencyListRepository filterBasedContingencyListRepository;
+
+    @Autowired
+    private ContingencyListRegistryRepository contingencyListRegistryRepository;
+
+    @Autowired
+    private EvaluationJobRepository evaluationJobRepository;
+
+    @Autowired
+    private ContingencyListSnapshotRepository contingencyListSnapshotRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EvaluationJobService evaluationJobService;
+
     @Autowired
     private MockMvc mvc;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @MockitoBean
     private NetworkStoreService networkStoreService;
 
     @Autowired
     private OutputDestination output;
 
+    @Autowired
+    private InputDestination input;
+
+    @Autowired
+    private NetworkCache networkCache;
+
+    @Autowired
+    private ContingencyListEvaluationCache evaluationCache;
+
+    @Autowired
+    private DefaultFilterProvider filterProvider;
+
     private ObjectMapper objectMapper;
 
     private WireMockServer wireMockServer;
@@ -122,6 +203,12 @@ class ContingencyListControllerTest {
     @AfterEach
     void tearDown() {
         idBasedContingencyListRepository.deleteAll();
+        filterBasedContingencyListRepository.deleteAll();
+        contingencyListRegistryRepository.deleteAll();
+        evaluationJobRepository.deleteAll();
+        networkCache.invalidateAll();
+        evaluationCache.invalidateAll();
+        filterProvider.invalidateAll();
 
         List<String> destinations = List.of(elementUpdateDestination);
         assertQueuesEmptyThenClear(destinations, output);
@@ -161,11 +248,11 @@ class ContingencyListControllerTest {
         Network network3 = SvcTestCaseFactory.createWithMoreSVCs(new NetworkFactoryImpl());
         Network network4 = ShuntTestCaseFactory.create(new NetworkFactoryImpl());
         Network network5 = EurostagTutorialExample1Factory.createWithFixedCurrentLimits(new NetworkFactoryImpl());
-        given(networkStoreService.getNetwork(NETWORK_UUID, PreloadingStrategy.COLLECTION)).willReturn(network);
-        given(networkStoreService.getNetwork(NETWORK_UUID_2, PreloadingStrategy.COLLECTION)).willReturn(network2);
-        given(networkStoreService.getNetwork(NETWORK_UUID_3, PreloadingStrategy.COLLECTION)).willReturn(network3);
-        given(networkStoreService.getNetwork(NETWORK_UUID_4, PreloadingStrategy.COLLECTION)).willReturn(network4);
-        given(networkStoreService.getNetwork(NETWORK_UUID_5, PreloadingStrategy.COLLECTION)).willReturn(network5);
+        given(networkStoreService.getNetwork(eq(NETWORK_UUID), any())).willReturn(network);
+        given(networkStoreService.getNetwork(eq(NETWORK_UUID_2), any())).willReturn(network2);
+        given(networkStoreService.getNetwork(eq(NETWORK_UUID_3), any())).willReturn(network3);
+        given(networkStoreService.getNetwork(eq(NETWORK_UUID_4), any())).willReturn(network4);
+        given(networkStoreService.getNetwork(eq(NETWORK_UUID_5), any())).willReturn(network5);
 
         objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
         objectMapper.registerModule(new ContingencyJsonModule());
@@ -520,6 +607,45 @@ class ContingencyListControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void testExportContingencyListStream() throws Exception {
+        List<UUID> contingencyListIds = new ArrayList<>();
+        for (String equipmentId : List.of("NHV1_NHV2_1", "NHV1_NHV2_2", "TEST1")) {
+            String res = mvc.perform(post("/" + VERSION + "/identifier-contingency-lists")
+                            .content(objectMapper.writeValueAsString(createIdBasedContingencyList(null, Instant.now(), equipmentId)))
+                            .contentType(APPLICATION_JSON))
+                    .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+            contingencyListIds.add(objectMapper.readValue(res, IdBasedContingencyList.class).getId());
+        }
+        String ids = contingencyListIds.stream().map(UUID::toString).collect(Collectors.joining(","));
+
+        MvcResult mvcResult = mvc.perform(get("/" + VERSION + "/contingency-lists/export/stream?networkUuid=" + NETWORK_UUID + "&contingencyListIds=" + ids))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String res = mvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        List<Map<String, Object>> streamedContingencies = new ArrayList<>();
+        for (String line : res.split("\n")) {
+            streamedContingencies.add(objectMapper.readValue(line, new TypeReference<>() {
+            }));
+        }
+
+        // same contingencies as the plain export
+        res = mvc.perform(get("/" + VERSION + "/contingency-lists/export?networkUuid=" + NETWORK_UUID + "&contingencyListIds=" + ids))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Map<String, Object>> contingencies = objectMapper.readValue(objectMapper.readTree(res).get("contingenciesFound").toString(), new TypeReference<>() {
+        });
+        assertEquals(2, streamedContingencies.size());
+        assertEquals(contingencies, streamedContingencies);
+
+        // nothing is streamed when a list is unknown
+        mvc.perform(get("/" + VERSION + "/contingency-lists/export/stream?networkUuid=" + NETWORK_UUID + "&contingencyListIds=" + ids + "," + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testExportUnknownContingencyList() throws Exception {
         mvc.perform(get("/" + VERSION + "/contingency-lists/" + UUID.randomUUID() + "/export?networkUuid=" + NETWORK_UUID + "&variantId=" + VARIANT_ID_1)
@@ -594,11 +720,341 @@ class ContingencyListControllerTest {
         assertEquals(0, count.notFoundElements());
     }
 
+    @Test
+    void testCountIdBasedContingencyList() throws Exception {
+        NetworkElementIdentifierContingencyList partiallyFoundContingency = new NetworkElementIdentifierContingencyList(List.of(new IdBasedNetworkElementIdentifier("NHV1_NHV2_2"), new IdBasedNetworkElementIdentifier("TEST1")), "partial");
+        NetworkElementIdentifierContingencyList foundContingency = new NetworkElementIdentifierContingencyList(List.of(new IdBasedNetworkElementIdentifier("NHV1_NHV2_1")), "found");
+        NetworkElementIdentifierContingencyList notFoundContingency = new NetworkElementIdentifierContingencyList(List.of(new IdBasedNetworkElementIdentifier("TEST2")), "notFound");
+        IdBasedContingencyList idBasedContingencyList = new IdBasedContingencyList(null, Instant.now(), new IdentifierContingencyList("defaultName", List.of(partiallyFoundContingency, foundContingency, notFoundContingency)));
+
+        String res = mvc.perform(post("/" + VERSION + "/identifier-contingency-lists")
+                        .content(objectMapper.writeValueAsString(idBasedContingencyList))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        UUID contingencyListId = objectMapper.readValue(res, IdBasedContingencyList.class).getId();
+
+        res = mvc.perform(get("/" + VERSION + "/contingency-lists/count?ids=" + contingencyListId + "&networkUuid=" + NETWORK_UUID)
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // id based lists are counted from their identifiers, without evaluating any contingency
+        ContingencyCount count = objectMapper.readValue(res, ContingencyCount.class);
+        assertEquals(2, count.contingencies());
+        assertEquals(2, count.notFoundElements());
+        verify(contingencyListEvaluator, never()).evaluateContingencyList(any(), any());
+        // a few equipment ids are looked up without preloading the network collections
+        verify(networkStoreService).getNetwork(NETWORK_UUID, PreloadingStrategy.NONE);
+        verify(networkStoreService, never()).getNetwork(NETWORK_UUID, PreloadingStrategy.COLLECTION);
+
+        // same result as the full evaluation
+        res = mvc.perform(get("/" + VERSION + "/contingency-lists/contingency-infos/export?networkUuid=" + NETWORK_UUID + "&ids=" + contingencyListId)
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Map<String, Object>> contingencyInfos = objectMapper.readValue(res, new TypeReference<>() {
+        });
+        assertEquals(count.contingencies(), contingencyInfos.stream().filter(infos -> infos.get("contingency") != null).count());
+        assertEquals(count.notFoundElements(), contingencyInfos.stream().filter(infos -> infos.get("notFoundElements") != null).count());
+    }
+
+    @Test
+    void testNotFoundElementsResolution() throws Exception {
+        UUID networkUuid = UUID.randomUUID();
+        Network spiedNetwork = spy(EurostagTutorialExample1Factory.create(new NetworkFactoryImpl()));
+        given(networkStoreService.getNetwork(eq(networkUuid), any())).willReturn(spiedNetwork);
+
+        // the same equipments are shared by several contingencies of several lists
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            IdBasedContingencyList idBasedContingencyList = new IdBasedContingencyList(null, Instant.now(), new IdentifierContingencyList("defaultName", List.of(
+                    new NetworkElementIdentifierContingencyList(List.of(new IdBasedNetworkElementIdentifier("NHV1_NHV2_1"), new IdBasedNetworkElementIdentifier("TEST1")), "partial"),
+                    new NetworkElementIdentifierContingencyList(List.of(new IdBasedNetworkElementIdentifier("NHV1_NHV2_1")), "found"),
+                    new NetworkElementIdentifierContingencyList(List.of(new IdBasedNetworkElementIdentifier("TEST1"), new IdBasedNetworkElementIdentifier("TEST2")), "notFound"))));
+            String res = mvc.perform(post("/" + VERSION + "/identifier-contingency-lists")
+                            .content(objectMapper.writeValueAsString(idBasedContingencyList))
+                            .contentType(APPLICATION_JSON))
+                    .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+            ids.add(objectMapper.readValue(res, IdBasedContingencyList.class).getId());
+        }
+        String idsParams = ids.stream().map(id -> "&ids=" + id).collect(Collectors.joining());
+
+        // each distinct equipment is looked up once for all the lists
+        String res = mvc.perform(get("/" + VERSION + "/contingency-lists/count?networkUuid=" + networkUuid + idsParams))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        ContingencyCount count = objectMapper.readValue(res, ContingencyCount.class);
+        assertEquals(4, count.contingencies());
+        assertEquals(4, count.notFoundElements());
+        verify(spiedNetwork, times(1)).getIdentifiable("NHV1_NHV2_1");
+        verify(spiedNetwork, times(1)).getIdentifiable("TEST1");
+        verify(spiedNetwork, times(1)).getIdentifiable("TEST2");
+
+        // the evaluation does not look the missing equipments up again, and still reports them
+        clearInvocations(spiedNetwork);
+        res = mvc.perform(get("/" + VERSION + "/contingency-lists/contingency-infos/export?networkUuid=" + networkUuid + idsParams))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Map<String, Object>> contingencyInfos = objectMapper.readValue(res, new TypeReference<>() {
+        });
+        assertEquals(6, contingencyInfos.size());
+        assertEquals(4, contingencyInfos.stream().filter(infos -> infos.get("contingency") != null).count());
+        assertEquals(4, contingencyInfos.stream().filter(infos -> infos.get("notFoundElements") != null).count());
+        verify(spiedNetwork, times(1)).getIdentifiable("TEST1");
+        verify(spiedNetwork, times(1)).getIdentifiable("TEST2");
+    }
+
+    @Test
+    void testEvaluationJob() throws Exception {
+        IdBasedContingencyList idBasedContingencyList = new IdBasedContingencyList(null, Instant.now(), new IdentifierContingencyList("defaultName", List.of(
+                new NetworkElementIdentifierContingencyList(List.of(new IdBasedNetworkElementIdentifier("NHV1_NHV2_1")), "contingency1"),
+                new NetworkElementIdentifierContingencyList(List.of(new IdBasedNetworkElementIdentifier("NHV1_NHV2_2")), "contingency2"),
+                new NetworkElementIdentifierContingencyList(List.of(new IdBasedNetworkElementIdentifier("TEST1")), "contingency3"))));
+        String res = mvc.perform(post("/" + VERSION + "/identifier-contingency-lists")
+                        .content(objectMapper.writeValueAsString(idBasedContingencyList))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        UUID contingencyListId = objectMapper.readValue(res, IdBasedContingencyList.class).getId();
+
+        // unknown lists are rejected at submission
+        mvc.perform(post("/" + VERSION + "/contingency-lists/evaluation-jobs?networkUuid=" + NETWORK_UUID + "&ids=" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+
+        res = mvc.perform(post("/" + VERSION + "/contingency-lists/evaluation-jobs?networkUuid=" + NETWORK_UUID + "&ids=" + contingencyListId + "&receiver=me"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        UUID jobId = objectMapper.readValue(res, UUID.class);
+
+        // the end of the job is notified to the receiver
+        Message<byte[]> message = output.receive(10 * TIMEOUT, evaluationResultDestination);
+        assertNotNull(message);
+        assertEquals(jobId.toString(), message.getHeaders().get(NotificationService.HEADER_JOB_UUID).toString());
+        assertEquals(EvaluationJobStatus.SUCCEEDED.name(), message.getHeaders().get(NotificationService.HEADER_JOB_STATUS));
+        assertEquals("me", message.getHeaders().get(NotificationService.HEADER_RECEIVER));
+
+        res = mvc.perform(get("/" + VERSION + "/contingency-lists/evaluation-jobs/" + jobId))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        EvaluationJobInfos job = objectMapper.readValue(res, EvaluationJobInfos.class);
+        assertEquals(EvaluationJobStatus.SUCCEEDED, job.status());
+        assertEquals(3, job.nbContingencies());
+        assertEquals(2, job.nbPages());
+
+        // the pages hold the same contingency infos as the synchronous evaluation, gzipped for the clients accepting it
+        List<Map<String, Object>> contingencyInfos = new ArrayList<>(objectMapper.readValue(mvc.perform(get("/" + VERSION + "/contingency-lists/evaluation-jobs/" + jobId + "/result"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString(), new TypeReference<List<Map<String, Object>>>() {
+                }));
+        assertEquals(2, contingencyInfos.size());
+        MockHttpServletResponse response = mvc.perform(get("/" + VERSION + "/contingency-lists/evaluation-jobs/" + jobId + "/result?page=1")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+        contingencyInfos.addAll(objectMapper.readValue(EvaluationJobService.decompress(response.getContentAsByteArray()), new TypeReference<List<Map<String, Object>>>() {
+        }));
+        res = mvc.perform(get("/" + VERSION + "/contingency-lists/contingency-infos/export?networkUuid=" + NETWORK_UUID + "&ids=" + contingencyListId))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        assertEquals(objectMapper.readValue(res, new TypeReference<List<Map<String, Object>>>() {
+        }), contingencyInfos);
+        mvc.perform(get("/" + VERSION + "/contingency-lists/evaluation-jobs/" + jobId + "/result?page=2"))
+                .andExpect(status().isNotFound());
+
+        // a failed job has no result
+        UUID unavailableNetworkUuid = UUID.randomUUID();
+        given(networkStoreService.getNetwork(eq(unavailableNetworkUuid), any())).willThrow(new PowsyblException("Network unavailable"));
+        res = mvc.perform(post("/" + VERSION + "/contingency-lists/evaluation-jobs?networkUuid=" + unavailableNetworkUuid + "&ids=" + contingencyListId))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        UUID failedJobId = objectMapper.readValue(res, UUID.class);
+        message = output.receive(10 * TIMEOUT, evaluationResultDestination);
+        assertNotNull(message);
+        assertEquals(EvaluationJobStatus.FAILED.name(), message.getHeaders().get(NotificationService.HEADER_JOB_STATUS));
+        EvaluationJobInfos failedJob = evaluationJobService.getJob(failedJobId).orElseThrow();
+        assertEquals(EvaluationJobStatus.FAILED, failedJob.status());
+        assertEquals("Network unavailable", failedJob.errorMessage());
+        mvc.perform(get("/" + VERSION + "/contingency-lists/evaluation-jobs/" + failedJobId + "/result"))
+                .andExpect(status().isConflict());
+
+        // so is a job interrupted by an error
+        UUID oversizedNetworkUuid = UUID.randomUUID();
+        given(networkStoreService.getNetwork(eq(oversizedNetworkUuid), any())).willThrow(new OutOfMemoryError("Network too large"));
+        res = mvc.perform(post("/" + VERSION + "/contingency-lists/evaluation-jobs?networkUuid=" + oversizedNetworkUuid + "&ids=" + contingencyListId))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        UUID interruptedJobId = objectMapper.readValue(res, UUID.class);
+        message = output.receive(10 * TIMEOUT, evaluationResultDestination);
+        assertNotNull(message);
+        assertEquals(EvaluationJobStatus.FAILED.name(), message.getHeaders().get(NotificationService.HEADER_JOB_STATUS));
+        assertEquals("Network too large", evaluationJobService.getJob(interruptedJobId).orElseThrow().errorMessage());
+
+        // expired jobs are no longer available, then deleted along with their result
+        jdbcTemplate.update("UPDATE evaluation_job SET expiration_date = ? WHERE id = ?", Instant.now().minusSeconds(1).atOffset(ZoneOffset.UTC), jobId);
+        mvc.perform(get("/" + VERSION + "/contingency-lists/evaluation-jobs/" + jobId))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/" + VERSION + "/contingency-lists/evaluation-jobs/" + jobId + "/result"))
+                .andExpect(status().isNotFound());
+        evaluationJobService.deleteExpiredJobs();
+        assertFalse(evaluationJobRepository.existsById(jobId));
+        assertTrue(evaluationJobRepository.existsById(failedJobId));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM evaluation_job_result", Integer.class));
+    }
+
+    @Test
+    void testOrphanedEvaluationJobs() {
+        // jobs left behind by a stopped server, and a job still refreshed by its server
+        List<UUID> jobIds = new ArrayList<>();
+        for (Instant heartbeatDate : List.of(Instant.now().minus(Duration.ofHours(1)), Instant.now().minus(Duration.ofHours(1)), Instant.now())) {
+            EvaluationJobEntity job = new EvaluationJobEntity();
+            job.setId(UUID.randomUUID());
+            job.setStatus(jobIds.isEmpty() ? EvaluationJobStatus.PENDING : EvaluationJobStatus.RUNNING);
+            job.setContingencyListIds(List.of(UUID.randomUUID()));
+            job.setReceiver("me");
+            job.setExpirationDate(Instant.now().plus(Duration.ofHours(1)));
+            job.setHeartbeatDate(heartbeatDate);
+            evaluationJobRepository.save(job);
+            jobIds.add(job.getId());
+        }
+
+        evaluationJobService.checkJobs();
+        Set<String> notifiedJobIds = new HashSet<>();
+        for (int i = 0; i < 2; i++) {
+            Message<byte[]> message = output.receive(TIMEOUT, evaluationResultDestination);
+            assertNotNull(message);
+            assertEquals(EvaluationJobStatus.FAILED.name(), message.getHeaders().get(NotificationService.HEADER_JOB_STATUS));
+            assertEquals("me", message.getHeaders().get(NotificationService.HEADER_RECEIVER));
+            notifiedJobIds.add(message.getHeaders().get(NotificationService.HEADER_JOB_UUID).toString());
+        }
+        assertEquals(Set.of(jobIds.get(0).toString(), jobIds.get(1).toString()), notifiedJobIds);
+        for (UUID jobId : jobIds.subList(0, 2)) {
+            EvaluationJobInfos job = evaluationJobService.getJob(jobId).orElseThrow();
+            assertEquals(EvaluationJobStatus.FAILED, job.status());
+            assertNotNull(job.errorMessage());
+        }
+        assertEquals(EvaluationJobStatus.RUNNING, evaluationJobService.getJob(jobIds.get(2)).orElseThrow().status());
+
+        // they are only failed once
+        evaluationJobService.checkJobs();
+        assertNull(output.receive(TIMEOUT, evaluationResultDestination));
+    }
+
+    @Test
+    void testContingencyListSnapshot() throws Exception {
+        String res = mvc.perform(post("/" + VERSION + "/identifier-contingency-lists")
+                        .content(objectMapper.writeValueAsString(createIdBasedContingencyList(null, Instant.now(), "NHV1_NHV2_1", "TEST1")))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        UUID contingencyListId = objectMapper.readValue(res, IdBasedContingencyList.class).getId();
+        String exportUrl = "/" + VERSION + "/contingency-lists/export?networkUuid=" + NETWORK_UUID + "&contingencyListIds=" + contingencyListId;
+        String evaluatedExport = mvc.perform(get(exportUrl)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+        mvc.perform(put("/" + VERSION + "/contingency-lists/" + UUID.randomUUID() + "/snapshots?networkUuid=" + NETWORK_UUID))
+                .andExpect(status().isNotFound());
+        mvc.perform(put("/" + VERSION + "/contingency-lists/" + contingencyListId + "/snapshots?networkUuid=" + NETWORK_UUID))
+                .andExpect(status().isOk());
+        awaitSnapshotsRefreshed();
+
+        // the exports on the materialized variant serve the snapshot, without evaluating the list
+        clearInvocations(contingencyListEvaluator);
+        evaluationCache.invalidateAll();
+        assertEquals(evaluatedExport, mvc.perform(get(exportUrl)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        MvcResult streamResult = mvc.perform(get("/" + VERSION + "/contingency-lists/export/stream?networkUuid=" + NETWORK_UUID + "&contingencyListIds=" + contingencyListId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String streamedExport = mvc.perform(asyncDispatch(streamResult)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        List<Map<String, Object>> streamedContingencies = new ArrayList<>();
+        for (String line : streamedExport.split("\n")) {
+            streamedContingencies.add(objectMapper.readValue(line, new TypeReference<>() {
+            }));
+        }
+        List<Map<String, Object>> exportedContingencies = objectMapper.readValue(objectMapper.readTree(evaluatedExport).get("contingenciesFound").toString(), new TypeReference<>() {
+        });
+        assertFalse(exportedContingencies.isEmpty());
+        assertEquals(exportedContingencies, streamedContingencies);
+        verify(contingencyListEvaluator, never()).evaluateContingencyList(any(), any());
+        // other variants are evaluated
+        mvc.perform(get(exportUrl + "&variantId=" + VARIANT_ID_1)).andExpect(status().isOk());
+        verify(contingencyListEvaluator, times(1)).evaluateContingencyList(any(), any());
+        mvc.perform(put("/" + VERSION + "/contingency-lists/" + contingencyListId + "/snapshots?networkUuid=" + NETWORK_UUID + "&variantId=" + VARIANT_ID_1))
+                .andExpect(status().isOk());
+        awaitSnapshotsRefreshed();
+
+        // the snapshots are refreshed in the background after a network update, one page after the other
+        clearInvocations(contingencyListEvaluator);
+        input.send(MessageBuilder.withPayload("").setHeader(ConsumerService.HEADER_NETWORK_UUID, NETWORK_UUID.toString()).build(), networkUpdateDestination);
+        awaitSnapshotsRefreshed();
+        verify(contingencyListEvaluator, times(2)).evaluateContingencyList(any(), any());
+
+        // a modified list is evaluated until its snapshot is refreshed
+        mvc.perform(put("/" + VERSION + "/identifier-contingency-lists/" + contingencyListId)
+                        .content(objectMapper.writeValueAsString(createIdBasedContingencyList(contingencyListId, Instant.now(), "NHV1_NHV2_2")))
+                        .contentType(APPLICATION_JSON)
+                        .header(USER_ID_HEADER, USER_ID_HEADER))
+                .andExpect(status().isOk());
+        Message<byte[]> message = output.receive(TIMEOUT, elementUpdateDestination);
+        String modifiedExport = mvc.perform(get(exportUrl)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        assertNotEquals(evaluatedExport, modifiedExport);
+        input.send(MessageBuilder.withPayload("").copyHeaders(message.getHeaders()).build(), elementUpdateDestination);
+        // the binder shares the destination with the notifications sent by this server
+        assertNotNull(output.receive(TIMEOUT, elementUpdateDestination));
+        awaitSnapshotsRefreshed();
+        clearInvocations(contingencyListEvaluator);
+        evaluationCache.invalidateAll();
+        assertEquals(modifiedExport, mvc.perform(get(exportUrl)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        verify(contingencyListEvaluator, never()).evaluateContingencyList(any(), any());
+
+        // once detached, the list is evaluated again
+        mvc.perform(delete("/" + VERSION + "/contingency-lists/" + contingencyListId + "/snapshots?networkUuid=" + NETWORK_UUID))
+                .andExpect(status().isOk());
+        mvc.perform(delete("/" + VERSION + "/contingency-lists/" + contingencyListId + "/snapshots?networkUuid=" + NETWORK_UUID))
+                .andExpect(status().isNotFound());
+        mvc.perform(get(exportUrl)).andExpect(status().isOk());
+        verify(contingencyListEvaluator, times(1)).evaluateContingencyList(any(), any());
+    }
+
+    @Test
+    void testElementUpdateOutbox() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        UUID elementUuid = UUID.randomUUID();
+
+        // nothing is published for a rolled back update
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationService.emitElementUpdated(elementUuid, USER_ID_HEADER);
+            status.setRollbackOnly();
+        });
+        assertNull(output.receive(TIMEOUT, elementUpdateDestination));
+
+        // the notifications are published once the update is committed, in order and whatever their number
+        int nbNotifications = 2500;
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < nbNotifications; i++) {
+                notificationService.emitElementUpdated(elementUuid, USER_ID_HEADER + i);
+            }
+            assertNull(output.receive(100, elementUpdateDestination));
+        });
+        for (int i = 0; i < nbNotifications; i++) {
+            Message<byte[]> message = output.receive(TIMEOUT, elementUpdateDestination);
+            assertNotNull(message);
+            assertEquals(elementUuid, message.getHeaders().get(NotificationService.HEADER_ELEMENT_UUID));
+            assertEquals(USER_ID_HEADER + i, message.getHeaders().get(NotificationService.HEADER_MODIFIED_BY));
+        }
+        long deadline = System.currentTimeMillis() + 10 * TIMEOUT;
+        while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM element_update_outbox", Integer.class) > 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "Outbox not drained");
+            Thread.sleep(10);
+        }
+    }
+
+    private void awaitSnapshotsRefreshed() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10 * TIMEOUT;
+        while (!contingencyListSnapshotRepository.findStale(null, 1).isEmpty()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Snapshots not refreshed");
+            Thread.sleep(10);
+        }
+    }
+
     private UUID setupCountContingencyTest() throws Exception {
-        List<UUID> filters = List.of(UUID.randomUUID(),
+        return setupCountContingencyTest(List.of(UUID.randomUUID(),
                 UUID.randomUUID(),
-                UUID.randomUUID());
+                UUID.randomUUID()));
+    }
 
+    private UUID setupCountContingencyTest(List<UUID> filters) throws Exception {
         String list = genFilterBasedContingencyList(filters);
         FilterBasedContingencyList filterBasedContingencyList = addNewFilterBasedContingencyList(list);
 
@@ -634,6 +1090,159 @@ class ContingencyListControllerTest {
         assertEquals(0, res.get(CONTINGENCY_2));
     }
 
+    @Test
+    void testCountContingencyListSharedByGroups() throws Exception {
+        UUID filterBasedContingencyListId = setupCountContingencyTest();
+
+        // the same list in several groups is only evaluated once
+        ContingencyIdsByGroup contingencyIdsByGroup = ContingencyIdsByGroup.builder().ids(Map.of(
+                CONTINGENCY_1, List.of(filterBasedContingencyListId, UUID.randomUUID()),
+                CONTINGENCY_2, List.of(filterBasedContingencyListId))).build();
+        Map<String, Long> res = objectMapper.readValue(mvc.perform(post("/" + VERSION + "/contingency-lists/count-by-group?networkUuid=" + NETWORK_UUID)
+                                .contentType(APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(contingencyIdsByGroup)))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString(),
+                new TypeReference<>() {
+                });
+        assertEquals(2, res.get(CONTINGENCY_1));
+        assertEquals(2, res.get(CONTINGENCY_2));
+        verify(contingencyListEvaluator, times(1)).evaluateContingencyList(any(), any());
+    }
+
+    @Test
+    void testNetworkCacheInvalidation() throws Exception {
+        UUID filterBasedContingencyListId = setupCountContingencyTest();
+        String countUrl = "/" + VERSION + "/contingency-lists/count?ids=" + filterBasedContingencyListId + "&networkUuid=" + NETWORK_UUID;
+
+        // the network is loaded once, then reused whatever the variant
+        mvc.perform(get(countUrl)).andExpect(status().isOk());
+        mvc.perform(get(countUrl + "&variantId=" + VARIANT_ID_1)).andExpect(status().isOk());
+        verify(networkStoreService, times(1)).getNetwork(NETWORK_UUID, PreloadingStrategy.COLLECTION);
+
+        // an update of another network does not evict it
+        input.send(MessageBuilder.withPayload("").setHeader(ConsumerService.HEADER_NETWORK_UUID, NETWORK_UUID_2.toString()).build(), networkUpdateDestination);
+        mvc.perform(get(countUrl)).andExpect(status().isOk());
+        verify(networkStoreService, times(1)).getNetwork(NETWORK_UUID, PreloadingStrategy.COLLECTION);
+
+        // it is reloaded after being updated
+        input.send(MessageBuilder.withPayload("").setHeader(ConsumerService.HEADER_NETWORK_UUID, NETWORK_UUID.toString()).build(), networkUpdateDestination);
+        mvc.perform(get(countUrl)).andExpect(status().isOk());
+        verify(networkStoreService, times(2)).getNetwork(NETWORK_UUID, PreloadingStrategy.COLLECTION);
+    }
+
+    @Test
+    void testNetworkLoadsBoundedPerRequest() throws Exception {
+        // distinct instances, as the workers lease their own network
+        given(networkStoreService.getNetwork(eq(NETWORK_UUID), any())).willAnswer(invocation -> EurostagTutorialExample1Factory.createWithMoreGenerators(new NetworkFactoryImpl()));
+        List<UUID> filterBasedContingencyListIds = List.of(setupCountContingencyTest(), setupCountContingencyTest(), setupCountContingencyTest(), setupCountContingencyTest());
+        String countUrl = "/" + VERSION + "/contingency-lists/count?networkUuid=" + NETWORK_UUID + "&ids="
+                + filterBasedContingencyListIds.stream().map(UUID::toString).collect(Collectors.joining(","));
+
+        // a network instance at most per worker, whatever the number of lists
+        mvc.perform(get(countUrl)).andExpect(status().isOk());
+        verify(networkStoreService, atMost(2)).getNetwork(eq(NETWORK_UUID), any());
+        verify(contingencyListEvaluator, times(4)).evaluateContingencyList(any(), any());
+    }
+
+    @Test
+    void testEvaluationCache() throws Exception {
+        List<UUID> filters = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        UUID filterBasedContingencyListId = setupCountContingencyTest(filters);
+        String countUrl = "/" + VERSION + "/contingency-lists/count?ids=" + filterBasedContingencyListId + "&networkUuid=" + NETWORK_UUID;
+
+        // the evaluation is reused for the same variant only
+        mvc.perform(get(countUrl)).andExpect(status().isOk());
+        mvc.perform(get(countUrl + "&variantId=" + VariantManagerConstants.INITIAL_VARIANT_ID)).andExpect(status().isOk());
+        verify(contingencyListEvaluator, times(1)).evaluateContingencyList(any(), any());
+        mvc.perform(get(countUrl + "&variantId=" + VARIANT_ID_1)).andExpect(status().isOk());
+        verify(contingencyListEvaluator, times(2)).evaluateContingencyList(any(), any());
+
+        // an update of one of the filters evicts the evaluations
+        input.send(MessageBuilder.withPayload("").setHeader(NotificationService.HEADER_ELEMENT_UUID, filters.get(1).toString()).build(), elementUpdateDestination);
+        // the binder shares the destination with the notifications sent by this server
+        assertNotNull(output.receive(TIMEOUT, elementUpdateDestination));
+        mvc.perform(get(countUrl)).andExpect(status().isOk());
+        verify(contingencyListEvaluator, times(3)).evaluateContingencyList(any(), any());
+
+        // as well as an update of the network
+        input.send(MessageBuilder.withPayload("").setHeader(ConsumerService.HEADER_NETWORK_UUID, NETWORK_UUID.toString()).build(), networkUpdateDestination);
+        mvc.perform(get(countUrl)).andExpect(status().isOk());
+        verify(contingencyListEvaluator, times(4)).evaluateContingencyList(any(), any());
+
+        // or of the list itself
+        mvc.perform(put("/" + VERSION + "/filters-contingency-lists/" + filterBasedContingencyListId)
+                        .content(genModifiedFilterBasedContingencyList(filters))
+                        .contentType(APPLICATION_JSON)
+                        .header(USER_ID_HEADER, USER_ID_HEADER))
+                .andExpect(status().isOk());
+        assertEquals(filterBasedContingencyListId, output.receive(TIMEOUT, elementUpdateDestination).getHeaders().get(NotificationService.HEADER_ELEMENT_UUID));
+        mvc.perform(get(countUrl)).andExpect(status().isOk());
+        verify(contingencyListEvaluator, times(5)).evaluateContingencyList(any(), any());
+    }
+
+    @Test
+    void testFiltersPrefetch() throws Exception {
+        List<UUID> filters = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> otherFilters = List.of(UUID.randomUUID(), filters.get(1), UUID.randomUUID());
+        UUID filterBasedContingencyListId = setupCountContingencyTest(filters);
+        UUID otherFilterBasedContingencyListId = setupCountContingencyTest(otherFilters);
+        doReturn(List.of()).when(filterService).getFilters(any());
+
+        // the filters of all the lists are fetched at once
+        mvc.perform(get("/" + VERSION + "/contingency-lists/count?ids=" + filterBasedContingencyListId + "&ids=" + otherFilterBasedContingencyListId + "&networkUuid=" + NETWORK_UUID))
+                .andExpect(status().isOk());
+        verify(filterService, times(1)).getFilters(any());
+        verify(filterService).getFilters(argThat(filterIds -> filterIds.size() == 5 && filterIds.containsAll(filters) && filterIds.containsAll(otherFilters)));
+    }
+
+    @Test
+    void testParallelEvaluation() throws Exception {
+        given(networkStoreService.getNetwork(eq(NETWORK_UUID), any())).willAnswer(invocation -> EurostagTutorialExample1Factory.createWithMoreGenerators(new NetworkFactoryImpl()));
+        List<UUID> contingencyListIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            contingencyListIds.add(setupCountContingencyTest());
+        }
+        doReturn(List.of()).when(filterService).getFilters(any());
+        // each evaluation waits for another one to be in progress
+        AtomicInteger inProgress = new AtomicInteger();
+        AtomicInteger maxInProgress = new AtomicInteger();
+        CountDownLatch concurrentEvaluations = new CountDownLatch(2);
+        Set<String> evaluationThreads = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            evaluationThreads.add(Thread.currentThread().getName());
+            maxInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+            try {
+                concurrentEvaluations.countDown();
+                concurrentEvaluations.await(10, TimeUnit.SECONDS);
+            } finally {
+                inProgress.decrementAndGet();
+            }
+            ContingencyInfos contingencyInfos = mock(ContingencyInfos.class);
+            when(contingencyInfos.getContingency()).thenReturn(mock(Contingency.class));
+            return List.of(contingencyInfos);
+        }).when(contingencyListEvaluator).evaluateContingencyList(any(), any());
+
+        // the lists are evaluated by the request thread and an evaluation worker at the same time, and the results merged back
+        ContingencyIdsByGroup contingencyIdsByGroup = ContingencyIdsByGroup.builder().ids(Map.of(
+                CONTINGENCY_1, contingencyListIds.subList(0, 3),
+                CONTINGENCY_2, List.of(contingencyListIds.get(3), contingencyListIds.get(0)))).build();
+        Map<String, Long> res = objectMapper.readValue(mvc.perform(post("/" + VERSION + "/contingency-lists/count-by-group?networkUuid=" + NETWORK_UUID)
+                                .contentType(APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(contingencyIdsByGroup)))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString(),
+                new TypeReference<>() {
+                });
+        assertEquals(3, res.get(CONTINGENCY_1));
+        assertEquals(2, res.get(CONTINGENCY_2));
+        verify(contingencyListEvaluator, times(4)).evaluateContingencyList(any(), any());
+        assertEquals(0, concurrentEvaluations.getCount());
+        assertEquals(2, maxInProgress.get());
+        assertTrue(evaluationThreads.contains(Thread.currentThread().getName()));
+        assertTrue(evaluationThreads.stream().anyMatch(threadName -> threadName.startsWith("evaluation-")));
+    }
+
     @Test
     void testGetPersistentContingencyLists() throws Exception {
         // Create an id based contingency list
@@ -698,4 +1307,557 @@ class ContingencyListControllerTest {
         mvc.perform(delete("/" + VERSION + "/contingency-lists/" + idBasedContingencyListId)).andExpect(status().isOk());
         mvc.perform(delete("/" + VERSION + "/contingency-lists/" + filterBasedContingencyListId)).andExpect(status().isOk());
     }
+
+    @Test
+    void testContingencyListRegistry() throws Exception {
+        String res = mvc.perform(post("/" + VERSION + "/identifier-contingency-lists")
+                        .content(objectMapper.writeValueAsString(createIdBasedContingencyList(null, Instant.now(), "NHV1_NHV2_1")))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        UUID idBasedContingencyListId = objectMapper.readValue(res, IdBasedContingencyList.class).getId();
+        UUID filterBasedContingencyListId = addNewFilterBasedContingencyList(genFilterBasedContingencyList(List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()))).getId();
+
+        // created lists are registered with their type and modification date
+        assertEquals(ContingencyListType.IDENTIFIERS, contingencyListRegistryRepository.findById(idBasedContingencyListId).orElseThrow().getType());
+        assertEquals(ContingencyListType.FILTERS, contingencyListRegistryRepository.findById(filterBasedContingencyListId).orElseThrow().getType());
+
+        // modified lists get their new modification date
+        mvc.perform(put("/" + VERSION + "/identifier-contingency-lists/" + idBasedContingencyListId)
+                        .content(objectMapper.writeValueAsString(createIdBasedContingencyList(idBasedContingencyListId, Instant.now(), "NHV1_NHV2_2")))
+                        .contentType(APPLICATION_JSON)
+                        .header(USER_ID_HEADER, USER_ID_HEADER))
+                .andExpect(status().isOk());
+        output.receive(TIMEOUT, elementUpdateDestination);
+        assertEquals(idBasedContingencyListRepository.findById(idBasedContingencyListId).orElseThrow().getModificationDate(),
+            contingencyListRegistryRepository.findById(idBasedContingencyListId).orElseThrow().getModificationDate());
+
+        // metadata are read from the registry
+        res = mvc.perform(get("/" + VERSION + "/contingency-lists/metadata?ids=" + idBasedContingencyListId + "," + filterBasedContingencyListId + "," + UUID.randomUUID()))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        List<ContingencyListMetadataImpl> metadata = objectMapper.readValue(res, new TypeReference<>() { });
+        assertEquals(Map.of(idBasedContingencyListId, ContingencyListType.IDENTIFIERS, filterBasedContingencyListId, ContingencyListType.FILTERS),
+            metadata.stream().collect(Collectors.toMap(ContingencyListMetadata::getId, ContingencyListMetadata::getType)));
+
+        // deleted lists are unregistered
+        mvc.perform(delete("/" + VERSION + "/contingency-lists/" + filterBasedContingencyListId)).andExpect(status().isOk());
+        assertTrue(contingencyListRegistryRepository.findById(filterBasedContingencyListId).isEmpty());
+        assertTrue(filterBasedContingencyListRepository.findById(filterBasedContingencyListId).isEmpty());
+        assertTrue(idBasedContingencyListRepository.findById(idBasedContingencyListId).isPresent());
+        mvc.perform(delete("/" + VERSION + "/contingency-lists/" + filterBasedContingencyListId)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testBatchedContingencyListsLoading() throws Exception {
+        doReturn(List.of()).when(contingencyListEvaluator).evaluateContingencyList(any(), any());
+
+        List<UUID> ids = new ArrayList<>(createContingencyLists(2));
+        List<Integer> statementCounts = countStatementsByRequest(ids);
+
+        // loading 120 lists takes as many statements as loading 4 lists
+        ids.addAll(createContingencyLists(58));
+        assertEquals(statementCounts, countStatementsByRequest(ids));
+        // registry, id based lists with their contingencies, filter based lists and each of their collections
+        statementCounts.forEach(count -> assertTrue(count <= 6, "Too many SQL statements: " + count));
+    }
+
+    private List<UUID> createContingencyLists(int nbListsByType) throws Exception {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < nbListsByType; i++) {
+            String res = mvc.perform(post("/" + VERSION + "/identifier-contingency-lists")
+                            .content(objectMapper.writeValueAsString(createIdBasedContingencyList(null, Instant.now(), "NHV1_NHV2_1", "NHV1_NHV2_2")))
+                            .contentType(APPLICATION_JSON))
+                    .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+            ids.add(objectMapper.readValue(res, IdBasedContingencyList.class).getId());
+            ids.add(addNewFilterBasedContingencyList(genFilterBasedContingencyList(List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()))).getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Count the SQL statements of the export, count and get requests on the given lists, without evaluation cache.
+     */
+    private List<Integer> countStatementsByRequest(List<UUID> ids) throws Exception {
+        String idsParam = ids.stream().map(UUID::toString).collect(Collectors.joining(","));
+        List<Integer> statementCounts = new ArrayList<>();
+
+        evaluationCache.invalidateAll();
+        SqlStatementCounter.reset();
+        mvc.perform(get("/" + VERSION + "/contingency-lists/export?networkUuid=" + NETWORK_UUID + "&contingencyListIds=" + idsParam))
+                .andExpect(status().isOk());
+        statementCounts.add(SqlStatementCounter.getCount());
+
+        evaluationCache.invalidateAll();
+        SqlStatementCounter.reset();
+        mvc.perform(get("/" + VERSION + "/contingency-lists/count?networkUuid=" + NETWORK_UUID + "&ids=" + idsParam))
+                .andExpect(status().isOk());
+        statementCounts.add(SqlStatementCounter.getCount());
+
+        SqlStatementCounter.reset();
+        mvc.perform(post("/" + VERSION + "/contingency-lists")
+                        .content(objectMapper.writeValueAsString(ids))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk());
+        statementCounts.add(SqlStatementCounter.getCount());
+        return statementCounts;
+    }
+
+    @Test
+    void testContingencyListsMetadataQueries() throws Exception {
+        List<UUID> ids = createContingencyLists(3);
+
+        // metadata are read with a single query, without loading the lists content
+        SqlStatementCounter.reset();
+        String res = mvc.perform(get("/" + VERSION + "/contingency-lists"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        assertEquals(1, SqlStatementCounter.getCount());
+        List<ContingencyListMetadataImpl> metadata = objectMapper.readValue(res, new TypeReference<>() { });
+        assertEquals(new HashSet<>(ids), metadata.stream().map(ContingencyListMetadata::getId).collect(Collectors.toSet()));
+
+        SqlStatementCounter.reset();
+        res = mvc.perform(get("/" + VERSION + "/contingency-lists/metadata?ids=" + ids.get(0) + "," + ids.get(1)))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        assertEquals(1, SqlStatementCounter.getCount());
+        metadata = objectMapper.readValue(res, new TypeReference<>() { });
+        assertEquals(Map.of(ids.get(0), ContingencyListType.IDENTIFIERS, ids.get(1), ContingencyListType.FILTERS),
+            metadata.stream().collect(Collectors.toMap(ContingencyListMetadata::getId, ContingencyListMetadata::getType)));
+    }
+
+    @Test
+    void testContingencyListsMetadataPages() throws Exception {
+        List<UUID> ids = createContingencyLists(5);
+
+        // browse all the lists by pages of 3
+        List<UUID> pagedIds = new ArrayList<>();
+        List<Instant> pagedModificationDates = new ArrayList<>();
+        String continuationToken = null;
+        int nbPages = 0;
+        do {
+            String url = "/" + VERSION + "/contingency-lists/page?size=3" + (continuationToken != null ? "&continuationToken=" + continuationToken : "");
+            JsonNode page = objectMapper.readTree(mvc.perform(get(url))
+                    .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+            assertTrue(page.get("contingencyLists").size() <= 3);
+            page.get("contingencyLists").forEach(metadata -> {
+                pagedIds.add(UUID.fromString(metadata.get("id").asText()));
+                pagedModificationDates.add(Instant.parse(metadata.get("modificationDate").asText()));
+            });
+            continuationToken = page.get("continuationToken").isNull() ? null : page.get("continuationToken").asText();
+            nbPages++;
+        } while (continuationToken != null);
+
+        assertEquals(4, nbPages);
+        assertEquals(ids.size(), pagedIds.size());
+        assertEquals(new HashSet<>(ids), new HashSet<>(pagedIds));
+        assertEquals(pagedModificationDates.stream().sorted().toList(), pagedModificationDates);
+
+        // invalid requests
+        mvc.perform(get("/" + VERSION + "/contingency-lists/page?size=0")).andExpect(status().isBadRequest());
+        mvc.perform(get("/" + VERSION + "/contingency-lists/page?continuationToken=invalid")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testIncrementalIdBasedContingencyListModification() throws Exception {
+        String res = mvc.perform(post("/" + VERSION + "/identifier-contingency-lists")
+                        .content(objectMapper.writeValueAsString(createIdBasedContingencyList(null, Instant.now(), "LINE1", "LINE2", "LINE3")))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        UUID contingencyListId = objectMapper.readValue(res, IdBasedContingencyList.class).getId();
+        Map<String, UUID> rowIds = getIdentifierListRowIds(contingencyListId);
+
+        // remove the first contingency, change the second one and append a new one
+        IdentifierContingencyListPatch patch = new IdentifierContingencyListPatch(
+            List.of(new IdentifierContingency("LINE4", List.of("LINE4"))),
+            List.of(new IdentifierContingency("LINE2", List.of("LINE2", "GEN"))),
+            List.of("LINE1"));
+        mvc.perform(patch("/" + VERSION + "/identifier-contingency-lists/" + contingencyListId)
+                        .content(objectMapper.writeValueAsString(patch))
+                        .contentType(APPLICATION_JSON)
+                        .header(USER_ID_HEADER, USER_ID_HEADER))
+                .andExpect(status().isOk());
+        Message<byte[]> message = output.receive(TIMEOUT, elementUpdateDestination);
+        assertEquals(contingencyListId, message.getHeaders().get(NotificationService.HEADER_ELEMENT_UUID));
+
+        res = mvc.perform(get("/" + VERSION + "/identifier-contingency-lists/" + contingencyListId))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        List<NetworkElementIdentifier> contingencies = objectMapper.readValue(res, IdBasedContingencyList.class).getIdentifierContingencyList().getIdentifiants();
+        assertEquals(List.of("LINE2", "LINE3", "LINE4"), contingencies.stream().map(contingency -> contingency.getContingencyId().orElseThrow()).toList());
+        assertEquals(Set.of("LINE2", "GEN"), ((NetworkElementIdentifierContingencyList) contingencies.get(0)).getNetworkElementIdentifiers().stream()
+            .map(identifier -> ((IdBasedNetworkElementIdentifier) identifier).getIdentifier()).collect(Collectors.toSet()));
+        // the kept contingencies are updated in place
+        Map<String, UUID> patchedRowIds = getIdentifierListRowIds(contingencyListId);
+        assertEquals(Set.of("LINE2", "LINE3", "LINE4"), patchedRowIds.keySet());
+        assertEquals(rowIds.get("LINE2"), patchedRowIds.get("LINE2"));
+        assertEquals(rowIds.get("LINE3"), patchedRowIds.get("LINE3"));
+
+        // a full modification is also written as a diff of the stored contingencies
+        mvc.perform(put("/" + VERSION + "/identifier-contingency-lists/" + contingencyListId)
+                        .content(objectMapper.writeValueAsString(createIdBasedContingencyList(contingencyListId, Instant.now(), "LINE4", "LINE3", "LINE5")))
+                        .contentType(APPLICATION_JSON)
+                        .header(USER_ID_HEADER, USER_ID_HEADER))
+                .andExpect(status().isOk());
+        output.receive(TIMEOUT, elementUpdateDestination);
+        res = mvc.perform(get("/" + VERSION + "/identifier-contingency-lists/" + contingencyListId))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        assertEquals(List.of("LINE4", "LINE3", "LINE5"), objectMapper.readValue(res, IdBasedContingencyList.class).getIdentifierContingencyList().getIdentifiants().stream()
+            .map(contingency -> contingency.getContingencyId().orElseThrow()).toList());
+        Map<String, UUID> modifiedRowIds = getIdentifierListRowIds(contingencyListId);
+        assertEquals(Set.of("LINE3", "LINE4", "LINE5"), modifiedRowIds.keySet());
+        assertEquals(patchedRowIds.get("LINE3"), modifiedRowIds.get("LINE3"));
+        assertEquals(patchedRowIds.get("LINE4"), modifiedRowIds.get("LINE4"));
+
+        // unknown contingency, empty result and unknown list
+        mvc.perform(patch("/" + VERSION + "/identifier-contingency-lists/" + contingencyListId)
+                        .content(objectMapper.writeValueAsString(new IdentifierContingencyListPatch(null, null, List.of("LINE1"))))
+                        .contentType(APPLICATION_JSON)
+                        .header(USER_ID_HEADER, USER_ID_HEADER))
+                .andExpect(status().isBadRequest());
+        mvc.perform(patch("/" + VERSION + "/identifier-contingency-lists/" + contingencyListId)
+                        .content(objectMapper.writeValueAsString(new IdentifierContingencyListPatch(null, null, List.of("LINE3", "LINE4", "LINE5"))))
+                        .contentType(APPLICATION_JSON)
+                        .header(USER_ID_HEADER, USER_ID_HEADER))
+                .andExpect(status().isBadRequest());
+        // contingency both modified and removed, or whose name would not be unique any more
+        List<IdentifierContingencyListPatch> conflictingPatches = List.of(
+            new IdentifierContingencyListPatch(null, List.of(new IdentifierContingency("LINE3", List.of("GEN"))), List.of("LINE3")),
+            new IdentifierContingencyListPatch(null, List.of(new IdentifierContingency("LINE3", List.of("GEN")), new IdentifierContingency("LINE3", List.of("LINE3"))), null),
+            new IdentifierContingencyListPatch(List.of(new IdentifierContingency("LINE4", List.of("GEN"))), null, null),
+            new IdentifierContingencyListPatch(List.of(new IdentifierContingency("LINE6", List.of("GEN")), new IdentifierContingency("LINE6", List.of("LINE6"))), null, null));
+        for (IdentifierContingencyListPatch conflictingPatch : conflictingPatches) {
+            mvc.perform(patch("/" + VERSION + "/identifier-contingency-lists/" + contingencyListId)
+                            .content(objectMapper.writeValueAsString(conflictingPatch))
+                            .contentType(APPLICATION_JSON)
+                            .header(USER_ID_HEADER, USER_ID_HEADER))
+                    .andExpect(status().isBadRequest());
+        }
+        mvc.perform(patch("/" + VERSION + "/identifier-contingency-lists/" + UUID.randomUUID())
+                        .content(objectMapper.writeValueAsString(patch))
+                        .contentType(APPLICATION_JSON)
+                        .header(USER_ID_HEADER, USER_ID_HEADER))
+                .andExpect(status().isNotFound());
+        assertEquals(modifiedRowIds, getIdentifierListRowIds(contingencyListId));
+    }
+
+    private Map<String, UUID> getIdentifierListRowIds(UUID contingencyListId) {
+        Map<String, UUID> rowIds = new HashMap<>();
+        jdbcTemplate.query("SELECT name, id FROM identifier_list WHERE id_based_contingency_list_id = ?",
+            rs -> { rowIds.put(rs.getString(1), rs.getObject(2, UUID.class)); }, contingencyListId);
+        return rowIds;
+    }
+
+    @Test
+    void testImportIdentifierContingencyList() throws Exception {
+        // gzip encoded CSV, written in several batches
+        int nbContingencies = 10_000;
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(csv), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < nbContingencies; i++) {
+                writer.write("CONTINGENCY_" + i + ",LINE_" + i + ", GEN_" + i + "\n");
+            }
+        }
+        String res = mvc.perform(post("/" + VERSION + "/identifier-contingency-lists/import")
+                        .content(csv.toByteArray())
+                        .contentType("text/csv")
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        ContingencyListMetadataImpl metadata = objectMapper.readValue(res, ContingencyListMetadataImpl.class);
+        assertEquals(ContingencyListType.IDENTIFIERS, metadata.getType());
+        assertEquals(nbContingencies, jdbcTemplate.queryForObject("SELECT count(*) FROM identifier_list WHERE id_based_contingency_list_id = ?", Integer.class, metadata.getId()));
+        res = mvc.perform(get("/" + VERSION + "/identifier-contingency-lists/" + metadata.getId()))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        List<NetworkElementIdentifier> contingencies = objectMapper.readValue(res, IdBasedContingencyList.class).getIdentifierContingencyList().getIdentifiants();
+        assertEquals(nbContingencies, contingencies.size());
+        assertEquals("CONTINGENCY_" + (nbContingencies - 1), contingencies.get(nbContingencies - 1).getContingencyId().orElseThrow());
+        assertEquals(Set.of("LINE_0", "GEN_0"), ((NetworkElementIdentifierContingencyList) contingencies.get(0)).getNetworkElementIdentifiers().stream()
+            .map(identifier -> ((IdBasedNetworkElementIdentifier) identifier).getIdentifier()).collect(Collectors.toSet()));
+
+        // NDJSON with a given id
+        UUID contingencyListId = UUID.randomUUID();
+        String ndjson = "{\"name\":\"" + CONTINGENCY_1 + "\",\"equipmentIds\":[\"NHV1_NHV2_1\",\"NHV1_NHV2_2\"]}\n\n{\"name\":\"" + CONTINGENCY_2 + "\",\"equipmentIds\":[\"GEN\"]}\n";
+        mvc.perform(post("/" + VERSION + "/identifier-contingency-lists/import?id=" + contingencyListId)
+                        .content(ndjson)
+                        .contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk());
+        res = mvc.perform(get("/" + VERSION + "/identifier-contingency-lists/" + contingencyListId))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        assertEquals(List.of(CONTINGENCY_1, CONTINGENCY_2), objectMapper.readValue(res, IdBasedContingencyList.class).getIdentifierContingencyList().getIdentifiants().stream()
+            .map(contingency -> contingency.getContingencyId().orElseThrow()).toList());
+
+        // invalid uploads are rejected as a whole
+        long nbContingencyLists = contingencyListRegistryRepository.count();
+        mvc.perform(post("/" + VERSION + "/identifier-contingency-lists/import")
+                        .content("CONTINGENCY_1,LINE_1\nCONTINGENCY_2\n")
+                        .contentType("text/csv"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/" + VERSION + "/identifier-contingency-lists/import")
+                        .content("{\"name\":\"" + CONTINGENCY_1 + "\",\"equipmentIds\":[\"GEN\"]}\n{\"name\":")
+                        .contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/" + VERSION + "/identifier-contingency-lists/import")
+                        .content("\n")
+                        .contentType("text/csv"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/" + VERSION + "/identifier-contingency-lists/import")
+                        .content("CONTINGENCY_1,LINE_1\n")
+                        .contentType("text/csv")
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(status().isBadRequest());
+        // a gzip upload with a valid header, but truncated or corrupted further on
+        byte[] gzippedCsv = csv.toByteArray();
+        mvc.perform(post("/" + VERSION + "/identifier-contingency-lists/import")
+                        .content(Arrays.copyOf(gzippedCsv, gzippedCsv.length / 2))
+                        .contentType("text/csv")
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/" + VERSION + "/identifier-contingency-lists/import")
+                        .content(Arrays.copyOf(gzippedCsv, 4))
+                        .contentType("text/csv")
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(status().isBadRequest());
+        byte[] corruptedCsv = Arrays.copyOf(gzippedCsv, gzippedCsv.length);
+        Arrays.fill(corruptedCsv, 10, corruptedCsv.length, (byte) 0xFF);
+        mvc.perform(post("/" + VERSION + "/identifier-contingency-lists/import")
+                        .content(corruptedCsv)
+                        .contentType("text/csv")
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(status().isBadRequest());
+        assertEquals(nbContingencyLists, contingencyListRegistryRepository.count());
+        assertEquals(nbContingencies + 2, jdbcTemplate.queryForObject("SELECT count(*) FROM identifier_list", Integer.class));
+    }
+
+    @Test
+    void testServerSideDuplication() throws Exception {
+        String res = mvc.perform(post("/" + VERSION + "/identifier-contingency-lists")
+                        .content(objectMapper.writeValueAsString(createIdBasedContingencyList(null, Instant.now(), IntStream.range(0, 1000).mapToObj(i -> "LINE_" + i).toArray(String[]::new))))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        UUID idBasedContingencyListId = objectMapper.readValue(res, IdBasedContingencyList.class).getId();
+        UUID filterBasedContingencyListId = addNewFilterBasedContingencyList(genFilterBasedContingencyList(List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()))).getId();
+
+        // the content of the lists is copied by a few statements, whatever its size
+        SqlStatementCounter.reset();
+        UUID idBasedDuplicateId = objectMapper.readValue(mvc.perform(post("/" + VERSION + "/identifier-contingency-lists?duplicateFrom=" + idBasedContingencyListId))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString(), UUID.class);
+        assertTrue(SqlStatementCounter.getCount() <= 5, "Too many SQL statements: " + SqlStatementCounter.getCount());
+        SqlStatementCounter.reset();
+        UUID filterBasedDuplicateId = objectMapper.readValue(mvc.perform(post("/" + VERSION + "/filters-contingency-lists?duplicateFrom=" + filterBasedContingencyListId))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString(), UUID.class);
+        assertTrue(SqlStatementCounter.getCount() <= 8, "Too many SQL statements: " + SqlStatementCounter.getCount());
+
+        List<Map<String, Object>> contingencyLists = getPersistentContingencyListsContent(List.of(idBasedContingencyListId, idBasedDuplicateId, filterBasedContingencyListId, filterBasedDuplicateId));
+        assertEquals(contingencyLists.get(0), contingencyLists.get(1));
+        assertEquals(contingencyLists.get(2), contingencyLists.get(3));
+        assertEquals(List.of(ContingencyListType.IDENTIFIERS, ContingencyListType.IDENTIFIERS, ContingencyListType.FILTERS, ContingencyListType.FILTERS),
+            List.of(idBasedContingencyListId, idBasedDuplicateId, filterBasedContingencyListId, filterBasedDuplicateId).stream().map(id -> contingencyListRegistryRepository.findById(id).orElseThrow().getType()).toList());
+
+        // the copies are independent of their source
+        mvc.perform(delete("/" + VERSION + "/contingency-lists/" + idBasedContingencyListId)).andExpect(status().isOk());
+        mvc.perform(delete("/" + VERSION + "/contingency-lists/" + filterBasedContingencyListId)).andExpect(status().isOk());
+        assertEquals(contingencyLists.subList(1, 2), getPersistentContingencyListsContent(List.of(idBasedDuplicateId)));
+        assertEquals(contingencyLists.subList(3, 4), getPersistentContingencyListsContent(List.of(filterBasedDuplicateId)));
+    }
+
+    @Test
+    void testBulkCreateAndDuplicate() throws Exception {
+        // lists created one by one, to compare with the ones created in bulk
+        List<String> contingencyLists = new ArrayList<>();
+        List<UUID> singleIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            IdBasedContingencyList idBasedContingencyList = createIdBasedContingencyList(null, Instant.now(), "LINE_" + i, "GEN_" + i);
+            String res = mvc.perform(post("/" + VERSION + "/identifier-contingency-lists")
+                            .content(objectMapper.writeValueAsString(idBasedContingencyList))
+                            .contentType(APPLICATION_JSON))
+                    .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+            singleIds.add(objectMapper.readValue(res, IdBasedContingencyList.class).getId());
+            contingencyLists.add(objectMapper.writeValueAsString(idBasedContingencyList));
+            String filterBasedContingencyList = genFilterBasedContingencyList(List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()));
+            singleIds.add(addNewFilterBasedContingencyList(filterBasedContingencyList).getId());
+            contingencyLists.add(filterBasedContingencyList);
+        }
+
+        String res = mvc.perform(post("/" + VERSION + "/contingency-lists/batch")
+                        .content("[" + String.join(",", contingencyLists) + "]")
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        List<UUID> bulkIds = objectMapper.readValue(res, new TypeReference<>() { });
+        assertEquals(singleIds.size(), bulkIds.size());
+        assertEquals(getPersistentContingencyListsContent(singleIds), getPersistentContingencyListsContent(bulkIds));
+        assertEquals(singleIds.stream().map(id -> contingencyListRegistryRepository.findById(id).orElseThrow().getType()).toList(),
+            bulkIds.stream().map(id -> contingencyListRegistryRepository.findById(id).orElseThrow().getType()).toList());
+
+        res = mvc.perform(post("/" + VERSION + "/contingency-lists/batch/duplicate")
+                        .content(objectMapper.writeValueAsString(bulkIds))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        List<UUID> duplicateIds = objectMapper.readValue(res, new TypeReference<>() { });
+        assertEquals(bulkIds.size(), duplicateIds.size());
+        assertEquals(getPersistentContingencyListsContent(bulkIds), getPersistentContingencyListsContent(duplicateIds));
+
+        // a list requested several times is copied as many times
+        res = mvc.perform(post("/" + VERSION + "/contingency-lists/batch/duplicate")
+                        .content(objectMapper.writeValueAsString(List.of(bulkIds.get(0), bulkIds.get(0), bulkIds.get(1), bulkIds.get(1))))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        duplicateIds = objectMapper.readValue(res, new TypeReference<>() { });
+        assertEquals(4, new HashSet<>(duplicateIds).size());
+        for (UUID duplicateId : duplicateIds.subList(0, 2)) {
+            mvc.perform(get("/" + VERSION + "/identifier-contingency-lists/" + duplicateId)).andExpect(status().isOk());
+        }
+        duplicateIds.subList(2, 4).forEach(duplicateId -> assertTrue(contingencyListRegistryRepository.existsById(duplicateId)));
+        assertEquals(getPersistentContingencyListsContent(List.of(bulkIds.get(0), bulkIds.get(0), bulkIds.get(1), bulkIds.get(1))),
+            getPersistentContingencyListsContent(duplicateIds));
+
+        // a filter selected several times in a list is copied with the equipment types of each selection
+        UUID filterId = UUID.randomUUID();
+        String sameFilterContingencyList = "{\"type\":\"FILTERS\", \"filters\":" + objectMapper.writeValueAsString(List.of(new FilterAttributes(filterId, LINE, "Filter1"))) +
+            ", \"selectedEquipmentTypesByFilter\":" + objectMapper.writeValueAsString(List.of(
+                new EquipmentTypesByFilter(filterId, Set.of(IdentifiableType.GENERATOR)),
+                new EquipmentTypesByFilter(filterId, Set.of(IdentifiableType.LOAD, IdentifiableType.LINE)))) + "}";
+        UUID sameFilterId = addNewFilterBasedContingencyList(sameFilterContingencyList).getId();
+        res = mvc.perform(post("/" + VERSION + "/contingency-lists/batch/duplicate")
+                        .content(objectMapper.writeValueAsString(List.of(sameFilterId)))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        UUID sameFilterDuplicateId = objectMapper.<List<UUID>>readValue(res, new TypeReference<>() { }).get(0);
+        assertEquals(List.of(List.of("GENERATOR"), List.of("LINE", "LOAD")), getEquipmentTypesByFilter(sameFilterId));
+        assertEquals(List.of(List.of("GENERATOR"), List.of("LINE", "LOAD")), getEquipmentTypesByFilter(sameFilterDuplicateId));
+
+        // the lists are written all together or not at all
+        long nbContingencyLists = contingencyListRegistryRepository.count();
+        mvc.perform(post("/" + VERSION + "/contingency-lists/batch")
+                        .content("[" + contingencyLists.get(0) + "," + objectMapper.writeValueAsString(createIdBasedContingencyList(null, Instant.now())) + "]")
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/" + VERSION + "/contingency-lists/batch/duplicate")
+                        .content(objectMapper.writeValueAsString(List.of(bulkIds.get(0), UUID.randomUUID())))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+        assertEquals(nbContingencyLists, contingencyListRegistryRepository.count());
+    }
+
+    /**
+     * Get the sorted equipment types of each equipment types by filter row of a filter based list, in their order.
+     */
+    private List<List<String>> getEquipmentTypesByFilter(UUID contingencyListId) {
+        Map<UUID, List<String>> equipmentTypesById = new HashMap<>();
+        jdbcTemplate.query("SELECT e.id, t.equipment_type FROM equipment_types_by_filter e " +
+                "JOIN equipment_types_by_filter_equipment_types t ON t.equipment_types_by_filter_id = e.id " +
+                "WHERE e.filter_based_contingency_list_id = ? ORDER BY t.equipment_type",
+            (RowCallbackHandler) rs -> equipmentTypesById.computeIfAbsent(rs.getObject(1, UUID.class), id -> new ArrayList<>()).add(rs.getString(2)),
+            contingencyListId);
+        return equipmentTypesById.values().stream().sorted(Comparator.comparing(List::toString)).toList();
+    }
+
+    /**
+     * Get the persistent contingency lists, in the order of the ids, without what differs from a list to its copies.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> getPersistentContingencyListsContent(List<UUID> ids) throws Exception {
+        String res = mvc.perform(post("/" + VERSION + "/contingency-lists")
+                        .content(objectMapper.writeValueAsString(ids))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        Map<String, Map<String, Object>> contingencyListsById = new HashMap<>();
+        objectMapper.readValue(res, new TypeReference<List<Map<String, Object>>>() { }).forEach(contingencyList -> {
+            contingencyListsById.put((String) contingencyList.remove("id"), contingencyList);
+            contingencyList.remove("modificationDate");
+            if (contingencyList.get("identifierContingencyList") instanceof Map<?, ?> identifierContingencyList) {
+                ((Map<String, Object>) identifierContingencyList).remove("name");
+            }
+        });
+        return ids.stream().map(id -> contingencyListsById.get(id.toString())).toList();
+    }
+
+    @Test
+    void testBulkDelete() throws Exception {
+        List<UUID> keptIds = createContingencyLists(1);
+        List<UUID> fewIds = createContingencyLists(1);
+        List<UUID> manyIds = createContingencyLists(10);
+
+        // a few statements whatever the number of lists, unknown ids being ignored
+        List<Integer> statementCounts = new ArrayList<>();
+        for (List<UUID> ids : List.of(fewIds, manyIds)) {
+            SqlStatementCounter.reset();
+            mvc.perform(delete("/" + VERSION + "/contingency-lists")
+                            .queryParam("ids", Stream.concat(ids.stream(), Stream.of(UUID.randomUUID())).map(UUID::toString).toArray(String[]::new)))
+                    .andExpect(status().isOk());
+            statementCounts.add(SqlStatementCounter.getCount());
+        }
+        assertEquals(statementCounts.get(0), statementCounts.get(1));
+        assertTrue(statementCounts.get(0) <= 8, "Too many SQL statements: " + statementCounts.get(0));
+
+        // only the content of the kept lists remains
+        assertEquals(Set.copyOf(keptIds), contingencyListRegistryRepository.findAll().stream().map(ContingencyListRegistryEntity::getId).collect(Collectors.toSet()));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM identifier_list", Integer.class));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT count(*) FROM filter_based_contingency_list_filter", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM equipment_types_by_filter", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM equipment_types_by_filter_equipment_types", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM id_based_contingency_list", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM filter_based_contingency_list", Integer.class));
+
+        mvc.perform(delete("/" + VERSION + "/contingency-lists/" + keptIds.get(0))).andExpect(status().isOk());
+        mvc.perform(delete("/" + VERSION + "/contingency-lists/" + keptIds.get(0))).andExpect(status().isNotFound());
+        mvc.perform(delete("/" + VERSION + "/contingency-lists").queryParam("ids", keptIds.get(1).toString())).andExpect(status().isOk());
+        assertEquals(0, contingencyListRegistryRepository.count());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM identifier_list", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM equipment_types_by_filter_equipment_types", Integer.class));
+    }
+
+    @Test
+    void testPackedEquipmentIds() throws Exception {
+        IdBasedContingencyList contingencyList = new IdBasedContingencyList(null, Instant.now(), new IdentifierContingencyList("defaultName", List.of(
+            new NetworkElementIdentifierContingencyList(List.of(new IdBasedNetworkElementIdentifier("NHV1_NHV2_1"), new IdBasedNetworkElementIdentifier("NHV1_NHV2_2")), CONTINGENCY_1),
+            new NetworkElementIdentifierContingencyList(List.of(new IdBasedNetworkElementIdentifier("GEN")), CONTINGENCY_2))));
+        String res = mvc.perform(post("/" + VERSION + "/identifier-contingency-lists")
+                        .content(objectMapper.writeValueAsString(contingencyList))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        UUID contingencyListId = objectMapper.readValue(res, IdBasedContingencyList.class).getId();
+
+        // one row per contingency, holding all its equipment ids
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM identifier_list", Integer.class));
+        res = mvc.perform(get("/" + VERSION + "/identifier-contingency-lists/" + contingencyListId))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        List<NetworkElementIdentifier> contingencies = objectMapper.readValue(res, IdBasedContingencyList.class).getIdentifierContingencyList().getIdentifiants();
+        assertEquals(List.of(CONTINGENCY_1, CONTINGENCY_2), contingencies.stream().map(contingency -> contingency.getContingencyId().orElseThrow()).toList());
+        assertEquals(Set.of("NHV1_NHV2_1", "NHV1_NHV2_2"), ((NetworkElementIdentifierContingencyList) contingencies.get(0)).getNetworkElementIdentifiers().stream()
+            .map(identifier -> ((IdBasedNetworkElementIdentifier) identifier).getIdentifier()).collect(Collectors.toSet()));
+
+        // the rows of the replaced contingencies are removed
+        mvc.perform(put("/" + VERSION + "/identifier-contingency-lists/" + contingencyListId)
+                        .content(objectMapper.writeValueAsString(createIdBasedContingencyList(contingencyListId, Instant.now(), "NHV1_NHV2_1")))
+                        .contentType(APPLICATION_JSON)
+                        .header(USER_ID_HEADER, USER_ID_HEADER))
+                .andExpect(status().isOk());
+        output.receive(TIMEOUT, elementUpdateDestination);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM identifier_list", Integer.class));
+    }
+
+    @Test
+    void testBulkWriteLargeContingencyList() throws Exception {
+        int nbContingencies = 100_000;
+        String[] equipmentIds = IntStream.range(0, nbContingencies).mapToObj(i -> "LINE_" + i).toArray(String[]::new);
+
+        // the contingencies are written with JDBC batches: the statements issued through Hibernate do not depend on their number
+        SqlStatementCounter.reset();
+        String res = mvc.perform(post("/" + VERSION + "/identifier-contingency-lists")
+                        .content(objectMapper.writeValueAsString(createIdBasedContingencyList(null, Instant.now(), equipmentIds)))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        assertTrue(SqlStatementCounter.getCount() <= 5, "Too many SQL statements: " + SqlStatementCounter.getCount());
+        UUID contingencyListId = objectMapper.readValue(res, IdBasedContingencyList.class).getId();
+        assertEquals(nbContingencies, jdbcTemplate.queryForObject("SELECT count(*) FROM identifier_list WHERE id_based_contingency_list_id = ?", Integer.class, contingencyListId));
+
+        SqlStatementCounter.reset();
+        mvc.perform(put("/" + VERSION + "/identifier-contingency-lists/" + contingencyListId)
+                        .content(objectMapper.writeValueAsString(createIdBasedContingencyList(contingencyListId, Instant.now(), Arrays.copyOf(equipmentIds, nbContingencies - 1))))
+                        .contentType(APPLICATION_JSON)
+                        .header(USER_ID_HEADER, USER_ID_HEADER))
+                .andExpect(status().isOk());
+        assertTrue(SqlStatementCounter.getCount() <= 5, "Too many SQL statements: " + SqlStatementCounter.getCount());
+        output.receive(TIMEOUT, elementUpdateDestination);
+        assertEquals(nbContingencies - 1, jdbcTemplate.queryForObject("SELECT count(*) FROM identifier_list WHERE id_based_contingency_list_id = ?", Integer.class, contingencyListId));
+        assertEquals(nbContingencies - 1, jdbcTemplate.queryForObject("SELECT max(identifier_order) FROM identifier_list WHERE id_based_contingency_list_id = ?", Integer.class, contingencyListId) + 1);
+
+        // spare the row by row deletion of the tear down
+        jdbcTemplate.update("DELETE FROM identifier_list WHERE id_based_contingency_list_id = ?", contingencyListId);
+    }
 }
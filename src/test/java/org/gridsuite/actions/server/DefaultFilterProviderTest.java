@@ -1,29 +1,79 @@
 package org.gridsuite.actions.server;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.gridsuite.actions.server.service.FilterService;
+import org.gridsuite.filter.AbstractFilter;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
-import static org.mockito.Mockito.verify;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class DefaultFilterProviderTest {
-    @InjectMocks
     private DefaultFilterProvider defaultFilterProvider;
 
     @Mock
     private FilterService filterService;
 
+    @BeforeEach
+    void setUp() {
+        defaultFilterProvider = new DefaultFilterProvider(filterService, new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+    }
+
+    private static AbstractFilter mockFilter(UUID id) {
+        AbstractFilter filter = mock(AbstractFilter.class);
+        when(filter.getId()).thenReturn(id);
+        return filter;
+    }
+
     @Test
     void getFiltersShouldCallFilterService() {
         List<UUID> filters = List.of(UUID.randomUUID(), UUID.randomUUID());
         defaultFilterProvider.getFilters(filters);
         verify(filterService).getFilters(filters);
     }
+
+    @Test
+    void getFiltersShouldOnlyFetchMissingFilters() {
+        UUID filterUuid1 = UUID.randomUUID();
+        UUID filterUuid2 = UUID.randomUUID();
+        UUID unknownFilterUuid = UUID.randomUUID();
+        AbstractFilter filter1 = mockFilter(filterUuid1);
+        AbstractFilter filter2 = mockFilter(filterUuid2);
+        when(filterService.getFilters(List.of(filterUuid1))).thenReturn(List.of(filter1));
+        when(filterService.getFilters(List.of(filterUuid2, unknownFilterUuid))).thenReturn(List.of(filter2));
+
+        assertEquals(List.of(filter1), defaultFilterProvider.getFilters(List.of(filterUuid1)));
+        // unknown filters are not cached
+        assertEquals(List.of(filter1, filter2), defaultFilterProvider.getFilters(List.of(filterUuid1, filterUuid2, unknownFilterUuid)));
+        verify(filterService).getFilters(List.of(filterUuid2, unknownFilterUuid));
+        when(filterService.getFilters(List.of(unknownFilterUuid))).thenReturn(List.of());
+        assertEquals(List.of(filter2, filter1), defaultFilterProvider.getFilters(List.of(filterUuid2, unknownFilterUuid, filterUuid1)));
+        verify(filterService).getFilters(List.of(unknownFilterUuid));
+        verify(filterService, times(3)).getFilters(any());
+    }
+
+    @Test
+    void getFiltersShouldFetchInvalidatedFilters() {
+        UUID filterUuid = UUID.randomUUID();
+        AbstractFilter filter = mockFilter(filterUuid);
+        when(filterService.getFilters(List.of(filterUuid))).thenReturn(List.of(filter));
+
+        defaultFilterProvider.getFilters(List.of(filterUuid));
+        defaultFilterProvider.getFilters(List.of(filterUuid));
+        verify(filterService, times(1)).getFilters(List.of(filterUuid));
+
+        defaultFilterProvider.invalidate(filterUuid);
+        defaultFilterProvider.getFilters(List.of(filterUuid));
+        verify(filterService, times(2)).getFilters(List.of(filterUuid));
+    }
 }
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server.configs;
+
+import org.gridsuite.actions.FilterProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.client.HttpClientAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ActionsConfigTest {
+    // concurrent blocking evaluations, e.g. a burst of security analysis runs each waiting on the filter server
+    private static final int CONCURRENT_EVALUATIONS = 500;
+    private static final int PARALLELISM = 2;
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(HttpClientAutoConfiguration.class, RestTemplateAutoConfiguration.class))
+        .withUserConfiguration(ActionsConfig.class)
+        .withBean(FilterProvider.class, () -> mock(FilterProvider.class))
+        .withPropertyValues("gridsuite.evaluation.parallelism=" + PARALLELISM);
+
+    @Test
+    void testPlatformThreads() {
+        contextRunner.run(context -> {
+            ExecutorService evaluationExecutor = context.getBean(ExecutorService.class);
+            assertFalse(evaluationExecutor.submit(() -> Thread.currentThread().isVirtual()).get());
+            // the evaluations wait for each other, whatever the number of requests
+            assertEquals(PARALLELISM, runBlockingEvaluations(evaluationExecutor, 10, 100));
+            assertInstanceOf(HttpComponentsClientHttpRequestFactory.class, context.getBean(RestTemplateBuilder.class).build().getRequestFactory());
+        });
+    }
+
+    @Test
+    void testVirtualThreads() {
+        AtomicReference<ExecutorService> httpClientExecutor = new AtomicReference<>();
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            ExecutorService evaluationExecutor = context.getBean(ExecutorService.class);
+            assertTrue(evaluationExecutor.submit(() -> Thread.currentThread().isVirtual()).get());
+            // all the evaluations are blocked at the same time instead of waiting for a pool thread
+            assertEquals(CONCURRENT_EVALUATIONS, runBlockingEvaluations(evaluationExecutor, CONCURRENT_EVALUATIONS, 30_000));
+            assertInstanceOf(JdkClientHttpRequestFactory.class, context.getBean(RestTemplateBuilder.class).build().getRequestFactory());
+
+            // the HTTP clients share a single executor
+            httpClientExecutor.set(context.getBean("httpClientExecutor", ExecutorService.class));
+            assertNotSame(evaluationExecutor, httpClientExecutor.get());
+            for (int i = 0; i < 2; i++) {
+                HttpClient httpClient = (HttpClient) ReflectionTestUtils.getField(context.getBean(RestTemplateBuilder.class).build().getRequestFactory(), "httpClient");
+                assertSame(httpClientExecutor.get(), httpClient.executor().orElseThrow());
+            }
+        });
+        // and shut it down with the context
+        assertTrue(httpClientExecutor.get().isShutdown());
+    }
+
+    /**
+     * Run evaluations blocked until all of them are in progress, or until a timeout,
+     * and return the maximum number of evaluations in progress at the same time.
+     */
+    private static int runBlockingEvaluations(ExecutorService executor, int nbEvaluations, long timeoutMillis) throws Exception {
+        AtomicInteger inProgress = new AtomicInteger();
+        AtomicInteger maxInProgress = new AtomicInteger();
+        CountDownLatch allInProgress = new CountDownLatch(nbEvaluations);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < nbEvaluations; i++) {
+            futures.add(executor.submit(() -> {
+                maxInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+                allInProgress.countDown();
+                try {
+                    allInProgress.await(timeoutMillis, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inProgress.decrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        return maxInProgress.get();
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server.service;
+
+import com.powsybl.iidm.network.VariantManagerConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.gridsuite.actions.dto.evaluation.ContingencyInfos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ContingencyListEvaluationCacheTest {
+    private static final UUID NETWORK_UUID = UUID.randomUUID();
+    private static final UUID FILTER_UUID = UUID.randomUUID();
+
+    private MeterRegistry meterRegistry;
+
+    private ContingencyListEvaluationCache evaluationCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        evaluationCache = new ContingencyListEvaluationCache(meterRegistry, 10, Duration.ofMinutes(10));
+    }
+
+    private double getMetric(String name, String result) {
+        return meterRegistry.get(name).tag("cache", ContingencyListEvaluationCache.CACHE_NAME).tag("result", result).functionCounter().count();
+    }
+
+    @Test
+    void evaluationIsCachedPerListVersionAndVariant() {
+        Instant modificationDate = Instant.now();
+        ContingencyListEvaluationCache.Key key = new ContingencyListEvaluationCache.Key(UUID.randomUUID(), modificationDate, NETWORK_UUID, null);
+        List<ContingencyInfos> evaluation = List.of(mock(ContingencyInfos.class));
+
+        assertTrue(evaluationCache.get(key).isEmpty());
+        assertEquals(evaluation, evaluationCache.evaluate(key, List.of(), () -> evaluation));
+        assertEquals(evaluation, evaluationCache.get(key).orElseThrow());
+        // a null variant is the initial variant
+        assertEquals(evaluation, evaluationCache.get(new ContingencyListEvaluationCache.Key(key.contingencyListId(), modificationDate, NETWORK_UUID, VariantManagerConstants.INITIAL_VARIANT_ID)).orElseThrow());
+        assertTrue(evaluationCache.get(new ContingencyListEvaluationCache.Key(key.contingencyListId(), modificationDate, NETWORK_UUID, "variant_1")).isEmpty());
+        assertTrue(evaluationCache.get(new ContingencyListEvaluationCache.Key(key.contingencyListId(), modificationDate.plusSeconds(1), NETWORK_UUID, null)).isEmpty());
+
+        assertEquals(2, getMetric("cache.gets", "hit"));
+        assertEquals(3, getMetric("cache.gets", "miss"));
+    }
+
+    @Test
+    void evaluationsAreInvalidated() {
+        ContingencyListEvaluationCache.Key filterBasedKey = new ContingencyListEvaluationCache.Key(UUID.randomUUID(), Instant.now(), NETWORK_UUID, null);
+        ContingencyListEvaluationCache.Key idBasedKey = new ContingencyListEvaluationCache.Key(UUID.randomUUID(), Instant.now(), NETWORK_UUID, null);
+        ContingencyListEvaluationCache.Key otherNetworkKey = new ContingencyListEvaluationCache.Key(idBasedKey.contingencyListId(), Instant.now(), UUID.randomUUID(), null);
+        evaluationCache.evaluate(filterBasedKey, List.of(FILTER_UUID), List::of);
+        evaluationCache.evaluate(idBasedKey, List.of(), List::of);
+        evaluationCache.evaluate(otherNetworkKey, List.of(), List::of);
+
+        evaluationCache.invalidateElement(FILTER_UUID);
+        assertTrue(evaluationCache.get(filterBasedKey).isEmpty());
+        assertTrue(evaluationCache.get(idBasedKey).isPresent());
+
+        evaluationCache.invalidateNetwork(NETWORK_UUID);
+        assertTrue(evaluationCache.get(idBasedKey).isEmpty());
+        assertTrue(evaluationCache.get(otherNetworkKey).isPresent());
+
+        evaluationCache.invalidateElement(otherNetworkKey.contingencyListId());
+        assertTrue(evaluationCache.get(otherNetworkKey).isEmpty());
+    }
+
+    @Test
+    void evaluationInvalidatedWhileComputedIsNotCached() {
+        ContingencyListEvaluationCache.Key key = new ContingencyListEvaluationCache.Key(UUID.randomUUID(), Instant.now(), NETWORK_UUID, null);
+        evaluationCache.evaluate(key, List.of(), () -> {
+            evaluationCache.invalidateNetwork(NETWORK_UUID);
+            return List.of();
+        });
+        assertTrue(evaluationCache.get(key).isEmpty());
+    }
+
+    @Test
+    void largestEvaluationsAreEvicted() {
+        // the cache holds up to 10 contingencies
+        ContingencyListEvaluationCache.Key key = new ContingencyListEvaluationCache.Key(UUID.randomUUID(), Instant.now(), NETWORK_UUID, null);
+        List<ContingencyInfos> evaluation = List.of(mock(ContingencyInfos.class), mock(ContingencyInfos.class), mock(ContingencyInfos.class),
+                mock(ContingencyInfos.class), mock(ContingencyInfos.class), mock(ContingencyInfos.class),
+                mock(ContingencyInfos.class), mock(ContingencyInfos.class), mock(ContingencyInfos.class), mock(ContingencyInfos.class));
+        evaluationCache.evaluate(key, List.of(), () -> evaluation);
+        // eviction is asynchronous
+        await().atMost(Duration.ofSeconds(5)).until(() -> meterRegistry.get("cache.evictions").tag("cache", ContingencyListEvaluationCache.CACHE_NAME).functionCounter().count() == 1);
+        assertTrue(evaluationCache.get(key).isEmpty());
+    }
+}
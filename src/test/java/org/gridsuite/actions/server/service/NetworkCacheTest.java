@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.actions.server.service;
+
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.VariantManagerConstants;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import com.powsybl.network.store.client.NetworkStoreService;
+import com.powsybl.network.store.client.PreloadingStrategy;
+import com.powsybl.network.store.iidm.impl.NetworkFactoryImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NetworkCacheTest {
+    private static final UUID NETWORK_UUID = UUID.randomUUID();
+    private static final UUID OTHER_NETWORK_UUID = UUID.randomUUID();
+    private static final String VARIANT_ID = "variant_1";
+
+    @Mock
+    private NetworkStoreService networkStoreService;
+
+    private NetworkCache networkCache;
+
+    @BeforeEach
+    void setUp() {
+        networkCache = new NetworkCache(networkStoreService, 2, Duration.ofMinutes(10));
+    }
+
+    private static Network createNetwork() {
+        Network network = EurostagTutorialExample1Factory.create(new NetworkFactoryImpl());
+        network.getVariantManager().cloneVariant(VariantManagerConstants.INITIAL_VARIANT_ID, VARIANT_ID);
+        return network;
+    }
+
+    @Test
+    void networkIsLoadedOnceAndVariantSwitched() {
+        when(networkStoreService.getNetwork(NETWORK_UUID, PreloadingStrategy.COLLECTION)).thenAnswer(invocation -> createNetwork());
+
+        String variantId = networkCache.withNetwork(NETWORK_UUID, VARIANT_ID, PreloadingStrategy.COLLECTION, network -> network.getVariantManager().getWorkingVariantId());
+        assertEquals(VARIANT_ID, variantId);
+        // a reused network goes back to the initial variant when no variant is asked
+        variantId = networkCache.withNetwork(NETWORK_UUID, null, PreloadingStrategy.COLLECTION, network -> network.getVariantManager().getWorkingVariantId());
+        assertEquals(VariantManagerConstants.INITIAL_VARIANT_ID, variantId);
+
+        verify(networkStoreService, times(1)).getNetwork(any(), any());
+    }
+
+    @Test
+    void concurrentLeasesGetDistinctNetworks() {
+        when(networkStoreService.getNetwork(NETWORK_UUID, PreloadingStrategy.COLLECTION)).thenAnswer(invocation -> createNetwork());
+
+        Network nestedNetwork = networkCache.withNetwork(NETWORK_UUID, null, PreloadingStrategy.COLLECTION, network ->
+                networkCache.withNetwork(NETWORK_UUID, null, PreloadingStrategy.COLLECTION, otherNetwork -> {
+                    assertNotSame(network, otherNetwork);
+                    return otherNetwork;
+                }));
+        // both networks are now cached
+        networkCache.withNetwork(NETWORK_UUID, null, PreloadingStrategy.COLLECTION, network -> networkCache.withNetwork(NETWORK_UUID, null, PreloadingStrategy.COLLECTION, otherNetwork -> otherNetwork));
+        verify(networkStoreService, times(2)).getNetwork(any(), any());
+        assertNotNull(nestedNetwork);
+    }
+
+    @Test
+    void invalidatedNetworkIsReloaded() {
+        when(networkStoreService.getNetwork(NETWORK_UUID, PreloadingStrategy.COLLECTION)).thenAnswer(invocation -> createNetwork());
+
+        networkCache.withNetwork(NETWORK_UUID, null, PreloadingStrategy.COLLECTION, network -> network);
+        networkCache.invalidate(NETWORK_UUID);
+        networkCache.withNetwork(NETWORK_UUID, null, PreloadingStrategy.COLLECTION, network -> network);
+        verify(networkStoreService, times(2)).getNetwork(any(), any());
+
+        // invalidation during a lease: the leased network is not put back in the cache
+        networkCache.withNetwork(NETWORK_UUID, null, PreloadingStrategy.COLLECTION, network -> {
+            networkCache.invalidate(NETWORK_UUID);
+            return network;
+        });
+        networkCache.withNetwork(NETWORK_UUID, null, PreloadingStrategy.COLLECTION, network -> network);
+        verify(networkStoreService, times(3)).getNetwork(any(), any());
+    }
+
+    @Test
+    void leastRecentlyUsedNetworkIsEvicted() {
+        when(networkStoreService.getNetwork(any(), eq(PreloadingStrategy.COLLECTION))).thenAnswer(invocation -> createNetwork());
+        UUID thirdNetworkUuid = UUID.randomUUID();
+
+        networkCache.withNetwork(NETWORK_UUID, null, PreloadingStrategy.COLLECTION, network -> network);
+        networkCache.withNetwork(OTHER_NETWORK_UUID, null, PreloadingStrategy.COLLECTION, network -> network);
+        networkCache.withNetwork(thirdNetworkUuid, null, PreloadingStrategy.COLLECTION, network -> network);
+        // cache size is 2: the first network has been evicted
+        networkCache.withNetwork(OTHER_NETWORK_UUID, null, PreloadingStrategy.COLLECTION, network -> network);
+        networkCache.withNetwork(NETWORK_UUID, null, PreloadingStrategy.COLLECTION, network -> network);
+        verify(networkStoreService, times(2)).getNetwork(eq(NETWORK_UUID), any());
+        verify(networkStoreService, times(1)).getNetwork(eq(OTHER_NETWORK_UUID), any());
+    }
+
+    @Test
+    void preloadedNetworkIsReusedWithoutPreloading() {
+        when(networkStoreService.getNetwork(eq(NETWORK_UUID), any())).thenAnswer(invocation -> createNetwork());
+
+        networkCache.withNetwork(NETWORK_UUID, null, PreloadingStrategy.NONE, network -> network);
+        // a network loaded without preloading is not reused when preloading is needed
+        networkCache.withNetwork(NETWORK_UUID, null, PreloadingStrategy.COLLECTION, network -> network);
+        verify(networkStoreService, times(1)).getNetwork(NETWORK_UUID, PreloadingStrategy.NONE);
+        verify(networkStoreService, times(1)).getNetwork(NETWORK_UUID, PreloadingStrategy.COLLECTION);
+
+        // whereas a preloaded network can be reused by anyone
+        networkCache.invalidate(NETWORK_UUID);
+        networkCache.withNetwork(NETWORK_UUID, null, PreloadingStrategy.COLLECTION, network -> network);
+        networkCache.withNetwork(NETWORK_UUID, null, PreloadingStrategy.NONE, network -> network);
+        verify(networkStoreService, times(1)).getNetwork(NETWORK_UUID, PreloadingStrategy.NONE);
+        verify(networkStoreService, times(2)).getNetwork(NETWORK_UUID, PreloadingStrategy.COLLECTION);
+    }
+
+    @Test
+    void unknownNetwork() {
+        assertThrows(PowsyblException.class, () -> networkCache.withNetwork(NETWORK_UUID, null, PreloadingStrategy.COLLECTION, network -> network));
+    }
+}